@@ -0,0 +1,101 @@
+package com.example.demo.entities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Batched inserts into a file-backed table that already holds `rows` keys, random v4 vs UuidV7Generator.
+// Plain JDBC so only the primary-key index behaviour differs between the two runs. Preloading 10M rows
+// takes a few minutes per strategy; pass -p rows=1000000 for a quick check.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class CouponIdInsertBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"random", "v7"})
+    public String strategy;
+
+    @Param({"10000000"})
+    public long rows;
+
+    // Kept well below the index size so that scattered inserts have to go to disk, as on a large table
+    @Param({"65536"})
+    public int cacheSizeKb;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void createTable() throws Exception {
+        directory = Files.createTempDirectory("coupon-id-bench");
+        connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + directory.resolve("coupons") + ";CACHE_SIZE=" + cacheSizeKb, "sa", "");
+        connection.setAutoCommit(false);
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE coupons (id UUID PRIMARY KEY, code VARCHAR(6) NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO coupons (id, code) VALUES (?, ?)");
+
+        for (long loaded = 0; loaded < rows; loaded += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() throws SQLException, IOException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, nextId());
+            insert.setString(2, Long.toString(sequence++ % 1_000_000, 36));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private UUID nextId() {
+        return "v7".equals(strategy) ? UuidV7Generator.next() : UUID.randomUUID();
+    }
+}
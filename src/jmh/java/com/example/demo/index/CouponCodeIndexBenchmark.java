@@ -0,0 +1,85 @@
+package com.example.demo.index;
+
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.repository.LiveCodeRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mayExist() on a loaded index: half of the probes are live codes, half random guesses. Setup prints the
+// bytes per code held by the table (the -prof gc default shows the lookups themselves allocate nothing).
+// 50M codes take about 1.7 GB of table, 2.5 GB while the last resize copies it, hence the heap size.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms6g", "-Xmx6g"})
+public class CouponCodeIndexBenchmark {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int PROBES = 1 << 20;
+
+    @Param({"1000000", "50000000"})
+    public int codes;
+
+    // Sized for `codes` up front, or left to grow from a small table as during a real load
+    @Param({"true", "false"})
+    public boolean presized;
+
+    private CouponCodeIndex index;
+    private String[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        index = new CouponCodeIndex(true, presized ? codes : 1024);
+
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new String[PROBES];
+        // Even probes are spread over the loaded codes, odd ones are guesses
+        int stride = Math.max(1, codes / (PROBES / 2));
+        index.load(IntStream.range(0, codes).mapToObj(i -> {
+            String code = randomCode(random);
+            if (i % stride == 0 && i / stride < PROBES / 2) {
+                probes[2 * (i / stride)] = code;
+            }
+            return new LiveCodeRow(code, new UUID(random.nextLong(), random.nextLong()), CouponStatusEnum.ACTIVE, Instant.now());
+        }));
+        for (int i = 0; i < PROBES; i++) {
+            if (probes[i] == null) {
+                probes[i] = randomCode(random);
+            }
+        }
+
+        System.out.printf("%n%d codes, %d table bytes, %.1f bytes per code%n", index.size(), index.memoryBytes(),
+                (double) index.memoryBytes() / index.size());
+    }
+
+    @Benchmark
+    public boolean mayExist() {
+        return index.mayExist(probes[next++ & (PROBES - 1)]);
+    }
+
+    private static String randomCode(SplittableRandom random) {
+        char[] code = new char[6];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(code);
+    }
+}
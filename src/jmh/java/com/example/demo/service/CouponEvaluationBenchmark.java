@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.CouponApiApplication;
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CartEvaluationRequest;
+import com.example.demo.dto.CartEvaluationResponse;
+import com.example.demo.dto.CouponDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// evaluate for a cart with many codes through the real Spring context and H2: every code cached,
+// or none of them (one IN query for all)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CouponEvaluationBenchmark {
+
+    @Param({"50"})
+    public int codes;
+
+    private ConfigurableApplicationContext context;
+    private CouponEvaluationService evaluationService;
+    private CouponCache couponCache;
+    private CartEvaluationRequest request;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "coupon.expiration-sweeper.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        CouponService couponService = context.getBean(CouponService.class);
+        evaluationService = context.getBean(CouponEvaluationService.class);
+        couponCache = context.getBean(CouponCache.class);
+
+        List<String> cart = new ArrayList<>(codes);
+        ids = new ArrayList<>(codes);
+        for (int i = 0; i < codes; i++) {
+            String code = String.format("EV%04d", i);
+            ids.add(couponService.create(new CouponDTO(code, "Cupom de benchmark", new BigDecimal(5 + i % 20),
+                    Instant.now().plus(1, ChronoUnit.DAYS), true)).getId());
+            cart.add(code);
+        }
+        request = new CartEvaluationRequest(new BigDecimal("100.00"), cart);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public CartEvaluationResponse evaluateCached() {
+        return evaluationService.evaluate(request);
+    }
+
+    // The evictions are part of the measured time, negligible next to the query
+    @Benchmark
+    public CartEvaluationResponse evaluateFromDatabase() {
+        for (UUID id : ids) {
+            couponCache.evict(id);
+        }
+        return evaluationService.evaluate(request);
+    }
+}
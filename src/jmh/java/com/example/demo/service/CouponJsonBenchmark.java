@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.CouponStatusEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Jackson (de)serialization of the request/response payloads, configured like Spring Boot's ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponJsonBenchmark {
+
+    // The application registers Blackbird (JacksonConfig); false shows plain reflective Jackson
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private CouponDTO request;
+    private CouponResponse response;
+    private byte[] requestJson;
+
+    @Setup
+    public void setup() throws Exception {
+        // Modules listed explicitly: findAndRegisterModules() would pick up Blackbird from the classpath
+        objectMapper = new ObjectMapper()
+                .registerModule(new Jdk8Module())
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+
+        Instant expiration = Instant.now().plus(1, ChronoUnit.DAYS);
+        request = new CouponDTO("ABC-123", "Cupom de benchmark", new BigDecimal("10.0"), expiration, true);
+        response = new CouponResponse(UUID.randomUUID(), "ABC123", "Cupom de benchmark", new BigDecimal("10.0"), expiration,
+                CouponStatusEnum.ACTIVE, true, false);
+        requestJson = objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public CouponDTO deserializeRequest() throws Exception {
+        return objectMapper.readValue(requestJson, CouponDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Pure CPU paths of CouponService, no Spring context involved
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponServiceBenchmark {
+
+    @Param({"ABC123", "ABC-123!!", "A!B@C#1$2%3^X-Y-Z"})
+    public String rawCode;
+
+    private CouponService couponService;
+    private CouponEntity entity;
+
+    @Setup
+    public void setup() {
+        couponService = new CouponService(null, null, null, null, null, null, null, null);
+
+        entity = new CouponEntity(UUID.randomUUID(), "ABC123", "Cupom de benchmark", new BigDecimal("10.0"),
+                Instant.now().plus(1, ChronoUnit.DAYS), CouponStatusEnum.ACTIVE, true, false);
+    }
+
+    @Benchmark
+    public String sanitizeCode() {
+        return couponService.sanitizeCode(rawCode);
+    }
+
+    // Baseline: the regex implementation sanitizeCode used before CouponCodeSanitizer
+    @Benchmark
+    public String sanitizeCodeRegex() {
+        String sanitized = rawCode.replaceAll("[^A-Za-z0-9]", "");
+        return sanitized.length() > 6 ? sanitized.substring(0, 6) : sanitized;
+    }
+
+    @Benchmark
+    public Object toResponse() {
+        return couponService.toResponse(entity);
+    }
+}
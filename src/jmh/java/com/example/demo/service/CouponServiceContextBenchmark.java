@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.CouponApiApplication;
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// create/findById/delete through the real Spring context, repositories and H2
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CouponServiceContextBenchmark {
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private CouponService couponService;
+    private CouponCache couponCache;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "coupon.expiration-sweeper.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        couponService = context.getBean(CouponService.class);
+        couponCache = context.getBean(CouponCache.class);
+        existingId = couponService.create(newCoupon()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public CouponResponse create() {
+        return couponService.create(newCoupon());
+    }
+
+    @Benchmark
+    public CouponResponse findByIdCached() {
+        return couponService.findById(existingId);
+    }
+
+    @Benchmark
+    public CouponResponse findByIdFromDatabase() {
+        couponCache.evict(existingId);
+        return couponService.findById(existingId);
+    }
+
+    @Benchmark
+    public void createThenDelete() {
+        couponService.delete(couponService.create(newCoupon()).getId());
+    }
+
+    // Every invocation needs a distinct live code: base-62 encode a counter into the 6 characters
+    private CouponDTO newCoupon() {
+        long n = sequence.getAndIncrement();
+        char[] code = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (n % ALPHABET.length)];
+            n /= ALPHABET.length;
+        }
+        return new CouponDTO(new String(code), "Cupom de benchmark", new BigDecimal("10.0"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true);
+    }
+}
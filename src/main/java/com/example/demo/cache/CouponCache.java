@@ -0,0 +1,185 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.CacheStatsResponse;
+import com.example.demo.dto.CouponResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class CouponCache implements MeterBinder {
+
+    // Optional.empty() is the negative entry kept for DELETED coupons
+    private final Cache<UUID, Optional<CouponResponse>> byId;
+    private final Cache<String, UUID> idByCode;
+    // Pre-serialized body of the live coupons in byId, invalidated together with them
+    private final Cache<UUID, SerializedCoupon> jsonById;
+    // Eviction stamps by id and by code, kept as long as a stale entry would live: a put whose load
+    // started before an eviction must not bring the evicted state back
+    private final Cache<Object, Long> evictedAt;
+    private final AtomicLong version = new AtomicLong();
+
+    public CouponCache(@Value("${coupon.cache.maximum-size:100000}") long maximumSize,
+                       @Value("${coupon.cache.ttl:10m}") Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idByCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.jsonById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.evictedAt = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public SerializedCoupon getJsonById(UUID id, Function<UUID, SerializedCoupon> loader) {
+        return jsonById.get(id, loader);
+    }
+
+    // The loader returns null for a DELETED coupon, which is cached as a negative entry
+    public Optional<CouponResponse> getById(UUID id, Function<UUID, CouponResponse> loader) {
+        return byId.get(id, key -> {
+            CouponResponse response = loader.apply(key);
+            if (response != null) {
+                idByCode.put(response.getCode(), key);
+            }
+            return Optional.ofNullable(response);
+        });
+    }
+
+    public CouponResponse getByCode(String code, Function<String, CouponResponse> loader) {
+        CouponResponse cached = peekByCode(code);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = stamp();
+        CouponResponse response = loader.apply(code);
+        put(response, stamp);
+        return response;
+    }
+
+    // Non-loading lookups for callers that cannot block on the loader. peekLive is null both on a miss
+    // and for a coupon cached as DELETED; isKnownDeleted tells the two apart
+    public CouponResponse peekLive(UUID id) {
+        Optional<CouponResponse> cached = byId.getIfPresent(id);
+        return cached == null ? null : cached.orElse(null);
+    }
+
+    // Through asMap, which records no stats: a miss checked right after peekLive is not counted twice
+    public boolean isKnownDeleted(UUID id) {
+        Optional<CouponResponse> cached = byId.asMap().get(id);
+        return cached != null && cached.isEmpty();
+    }
+
+    public CouponResponse peekByCode(String code) {
+        UUID id = idByCode.getIfPresent(code);
+        if (id == null) {
+            return null;
+        }
+        Optional<CouponResponse> cached = byId.getIfPresent(id);
+        if (cached != null && cached.isPresent() && code.equals(cached.get().getCode())) {
+            return cached.get();
+        }
+        return null;
+    }
+
+    // Taken before reading the coupon from the database, then handed to put
+    public long stamp() {
+        return version.get();
+    }
+
+    // Skipped when the id or code was evicted after the stamp was taken. The check runs inside the byId
+    // compute and evictions stamp before invalidating, so a racing eviction either is seen here or removes the entry.
+    public void put(CouponResponse response, long stamp) {
+        jsonById.invalidate(response.getId());
+        Optional<CouponResponse> entry = Optional.of(response);
+        Optional<CouponResponse> stored = byId.asMap().compute(response.getId(), (id, current) ->
+                evictedSince(id, stamp) || evictedSince(response.getCode(), stamp) ? current : entry);
+        if (stored == entry) {
+            idByCode.put(response.getCode(), response.getId());
+        }
+    }
+
+    public void evict(UUID id) {
+        Optional<CouponResponse> cached = byId.getIfPresent(id);
+        markEvicted(id);
+        byId.invalidate(id);
+        jsonById.invalidate(id);
+        if (cached != null) {
+            cached.ifPresent(response -> idByCode.invalidate(response.getCode()));
+        }
+    }
+
+    public void evictCode(String code) {
+        UUID id = idByCode.getIfPresent(code);
+        markEvicted(code);
+        idByCode.invalidate(code);
+        if (id != null) {
+            byId.invalidate(id);
+            jsonById.invalidate(id);
+        }
+    }
+
+    public void markDeleted(UUID id) {
+        evict(id);
+        byId.put(id, Optional.empty());
+    }
+
+    private void markEvicted(Object key) {
+        evictedAt.put(key, version.incrementAndGet());
+    }
+
+    private boolean evictedSince(Object key, long stamp) {
+        Long evicted = evictedAt.getIfPresent(key);
+        return evicted != null && evicted > stamp;
+    }
+
+    // Picked up by the actuator as a MeterBinder bean: cache.gets/puts/evictions{cache=coupon.byId|coupon.byCode|coupon.json}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "coupon.byId");
+        CaffeineCacheMetrics.monitor(registry, idByCode, "coupon.byCode");
+        CaffeineCacheMetrics.monitor(registry, jsonById, "coupon.json");
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStatsResponse resp = new CacheStatsResponse();
+        resp.setById(toStats(byId));
+        resp.setByCode(toStats(idByCode));
+        resp.setJson(toStats(jsonById));
+        return resp;
+    }
+
+    private CacheStatsResponse.Stats toStats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        CacheStatsResponse.Stats resp = new CacheStatsResponse.Stats();
+        resp.setSize(cache.estimatedSize());
+        resp.setHits(stats.hitCount());
+        resp.setMisses(stats.missCount());
+        resp.setEvictions(stats.evictionCount());
+        resp.setHitRate(stats.hitRate());
+        return resp;
+    }
+}
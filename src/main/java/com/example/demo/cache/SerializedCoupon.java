@@ -0,0 +1,43 @@
+package com.example.demo.cache;
+
+import org.springframework.util.DigestUtils;
+
+// A coupon's JSON body as written on the wire, with a strong ETag computed over those bytes
+public class SerializedCoupon {
+
+    private final byte[] json;
+    private final String etag;
+
+    public SerializedCoupon(byte[] json) {
+        this.json = json;
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    // If-None-Match may hold "*", a list of tags, or weak tags (compared weakly, as RFC 9110 requires for GET)
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
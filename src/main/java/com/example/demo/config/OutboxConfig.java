@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import com.example.demo.outbox.FileOutboxSink;
+import com.example.demo.outbox.InMemoryOutboxSink;
+import com.example.demo.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Sink picked by coupon.outbox.sink; any other value expects the application to declare its own OutboxSink
+@Configuration
+@ConditionalOnProperty(name = "coupon.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.outbox.sink", havingValue = "memory", matchIfMissing = true)
+    public InMemoryOutboxSink inMemoryOutboxSink(@Value("${coupon.outbox.memory.capacity:100000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.outbox.sink", havingValue = "file")
+    public FileOutboxSink fileOutboxSink(@Value("${coupon.outbox.file.path:coupon-events.ndjson}") Path path,
+                                         ObjectMapper objectMapper) throws IOException {
+        return new FileOutboxSink(path, objectMapper);
+    }
+}
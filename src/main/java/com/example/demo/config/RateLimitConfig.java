@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import com.example.demo.ratelimit.LoadShedder;
+import com.example.demo.ratelimit.RateLimitFilter;
+import com.example.demo.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitConfig {
+
+    private final ObjectProvider<LoadShedder> loadShedder;
+
+    public RateLimitConfig(ObjectProvider<LoadShedder> loadShedder) {
+        this.loadShedder = loadShedder;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public TokenBucketRateLimiter tokenBucketRateLimiter(@Value("${coupon.rate-limit.permits-per-second:100}") double permitsPerSecond,
+                                                         @Value("${coupon.rate-limit.burst:200}") int burst,
+                                                         @Value("${coupon.rate-limit.max-clients:100000}") long maxClients,
+                                                         @Value("${coupon.rate-limit.client-idle-ttl:10m}") Duration idleTtl) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst, maxClients, idleTtl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+    public LoadShedder loadShedder(MeterRegistry registry,
+                                   @Value("${coupon.load-shedding.pool-wait-threshold:200ms}") Duration threshold) {
+        return new LoadShedder(registry, threshold);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ObjectProvider<TokenBucketRateLimiter> rateLimiter,
+                                                                   @Value("${coupon.rate-limit.api-keys:}") Set<String> apiKeys,
+                                                                   @Value("${coupon.load-shedding.retry-after-seconds:1}") long retryAfterSeconds,
+                                                                   MeterRegistry registry) {
+        RateLimitFilter filter = new RateLimitFilter(rateLimiter.getIfAvailable(), loadShedder.getIfAvailable(),
+                apiKeys, retryAfterSeconds, registry);
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/coupon", "/coupon/*");
+        // Ahead of everything that does real work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Scheduled(fixedRateString = "${coupon.load-shedding.sample-interval-ms:1000}")
+    public void sampleLoad() {
+        loadShedder.ifAvailable(LoadShedder::sample);
+    }
+}
@@ -1,36 +1,147 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.SerializedCoupon;
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.BulkDeleteResponse;
+import com.example.demo.dto.CacheStatsResponse;
+import com.example.demo.dto.CartEvaluationRequest;
+import com.example.demo.dto.CartEvaluationResponse;
 import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponGenerateRequest;
+import com.example.demo.dto.CouponLookupRequest;
+import com.example.demo.dto.CouponLookupResponse;
+import com.example.demo.dto.CouponPageResponse;
 import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.ExportFormatEnum;
+import com.example.demo.idempotency.IdempotencyService;
+import com.example.demo.service.CouponBatchService;
+import com.example.demo.service.CouponEvaluationService;
+import com.example.demo.service.CouponExportService;
+import com.example.demo.service.CouponLookupService;
 import com.example.demo.service.CouponService;
+import com.example.demo.service.MultiUseRedemptionService;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/coupon")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponBatchService couponBatchService;
+    private final CouponExportService couponExportService;
+    private final IdempotencyService idempotencyService;
+    private final CouponEvaluationService couponEvaluationService;
+    private final CouponLookupService couponLookupService;
 
-    public CouponController(CouponService couponService) {
+    public CouponController(CouponService couponService,
+                            CouponBatchService couponBatchService,
+                            CouponExportService couponExportService,
+                            IdempotencyService idempotencyService,
+                            CouponEvaluationService couponEvaluationService,
+                            CouponLookupService couponLookupService) {
         this.couponService = couponService;
+        this.couponBatchService = couponBatchService;
+        this.couponExportService = couponExportService;
+        this.idempotencyService = idempotencyService;
+        this.couponEvaluationService = couponEvaluationService;
+        this.couponLookupService = couponLookupService;
     }
 
-    // POST /coupon
+    // POST /coupon (optional Idempotency-Key header)
     @PostMapping
-    public ResponseEntity<CouponResponse> create(@Valid @RequestBody CouponDTO request) {
+    public ResponseEntity<CouponResponse> create(@Valid @RequestBody CouponDTO request,
+                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute("create", idempotencyKey, request, CouponResponse.class,
+                    () -> ResponseEntity.status(HttpStatus.CREATED).body(couponService.create(request)));
+        }
         CouponResponse response = couponService.create(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    // POST /coupon/batch (JSON array or NDJSON in, one NDJSON result line per item out)
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> createBatch(InputStream body) {
+        StreamingResponseBody results = out -> couponBatchService.createBatch(body, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results);
+    }
+
+    // POST /coupon/generate?count=N&prefix=..
+    @PostMapping("/generate")
+    public ResponseEntity<StreamingResponseBody> generate(@RequestParam long count,
+                                                          @RequestParam(defaultValue = "") String prefix,
+                                                          @Valid @RequestBody CouponGenerateRequest request) {
+        couponBatchService.checkGeneration(request, count, prefix);
+
+        StreamingResponseBody body = out -> couponBatchService.generate(request, count, prefix, out);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // GET /coupon?status=&published=&redeemed=&expiresAfter=&expiresBefore=&after=&size=
+    @GetMapping
+    public ResponseEntity<CouponPageResponse> list(@ModelAttribute CouponFilter filter,
+                                                   @RequestParam(required = false) UUID after,
+                                                   @RequestParam(defaultValue = "50") int size) {
+        CouponPageResponse response = couponService.list(filter, after, size);
+        return ResponseEntity.ok(response);
+    }
+
+    // GET /coupon/export?format=CSV|NDJSON (same filters as the listing)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@ModelAttribute CouponFilter filter,
+                                                        @RequestParam(defaultValue = "CSV") ExportFormatEnum format) {
+        MediaType contentType = format == ExportFormatEnum.CSV
+                ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> couponExportService.export(filter, format, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header("Content-Disposition", "attachment; filename=coupons." + format.name().toLowerCase())
+                .body(body);
+    }
+
     // GET /coupon/{id}
+    // Written straight from the cached bytes; If-None-Match answers 304 without a body
     @GetMapping("/{id}")
-    public ResponseEntity<CouponResponse> findById(@PathVariable UUID id) {
-        CouponResponse response = couponService.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable UUID id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SerializedCoupon coupon = couponService.findSerializedById(id);
+        if (coupon.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(coupon.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(coupon.getEtag())
+                .body(coupon.getJson());
+    }
+
+    // POST /coupon/lookup (body with ids and/or codes)
+    @PostMapping("/lookup")
+    public ResponseEntity<CouponLookupResponse> lookup(@RequestBody CouponLookupRequest request) {
+        return ResponseEntity.ok(couponLookupService.lookup(request));
+    }
+
+    // GET /coupon/code/{code}
+    @GetMapping("/code/{code}")
+    public ResponseEntity<CouponResponse> findByCode(@PathVariable String code) {
+        CouponResponse response = couponService.findByCode(code);
         return ResponseEntity.ok(response);
     }
 
@@ -40,4 +151,58 @@ public class CouponController {
         couponService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // DELETE /coupon (body with ids or filter)
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResponse> bulkDelete(@RequestBody BulkDeleteRequest request) {
+        BulkDeleteResponse response = couponBatchService.bulkDelete(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // POST /coupon/{id}/redeem (optional Idempotency-Key header; X-Customer-Id for per-customer limits)
+    @PostMapping("/{id}/redeem")
+    public ResponseEntity<Void> redeem(@PathVariable UUID id,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                       @RequestHeader(value = MultiUseRedemptionService.CUSTOMER_HEADER, required = false) String customerId) {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute("redeem", idempotencyKey, redeemRequest(id, customerId), Void.class, () -> {
+                couponService.redeem(id, customerId);
+                return ResponseEntity.noContent().build();
+            });
+        }
+        couponService.redeem(id, customerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST /coupon/code/{code}/redeem (optional Idempotency-Key header; X-Customer-Id for per-customer limits)
+    @PostMapping("/code/{code}/redeem")
+    public ResponseEntity<Void> redeemByCode(@PathVariable String code,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                             @RequestHeader(value = MultiUseRedemptionService.CUSTOMER_HEADER, required = false) String customerId) {
+        if (idempotencyKey != null) {
+            return idempotencyService.execute("redeem", idempotencyKey, redeemRequest(code, customerId), Void.class, () -> {
+                couponService.redeemByCode(code, customerId);
+                return ResponseEntity.noContent().build();
+            });
+        }
+        couponService.redeemByCode(code, customerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // POST /coupon/evaluate (read-only: nothing is redeemed)
+    @PostMapping("/evaluate")
+    public ResponseEntity<CartEvaluationResponse> evaluate(@Valid @RequestBody CartEvaluationRequest request) {
+        return ResponseEntity.ok(couponEvaluationService.evaluate(request));
+    }
+
+    // GET /coupon/cache/stats
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> cacheStats() {
+        return ResponseEntity.ok(couponService.cacheStats());
+    }
+
+    // The same key replayed for another customer must be refused, not answered with the first customer's result
+    private static Object redeemRequest(Object coupon, String customerId) {
+        return customerId == null ? coupon : coupon + "/" + customerId;
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.service.ReactiveCouponService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+// Served instead of CouponController when the app runs with the "reactive" profile
+@RestController
+@RequestMapping("/coupon")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCouponController {
+
+    private final ReactiveCouponService couponService;
+
+    public ReactiveCouponController(ReactiveCouponService couponService) {
+        this.couponService = couponService;
+    }
+
+    // POST /coupon
+    @PostMapping
+    public Mono<ResponseEntity<CouponResponse>> create(@Valid @RequestBody CouponDTO request) {
+        return couponService.create(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    // GET /coupon/{id}
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CouponResponse>> findById(@PathVariable UUID id) {
+        return couponService.findById(id).map(ResponseEntity::ok);
+    }
+
+    // GET /coupon/code/{code}
+    @GetMapping("/code/{code}")
+    public Mono<ResponseEntity<CouponResponse>> findByCode(@PathVariable String code) {
+        return couponService.findByCode(code).map(ResponseEntity::ok);
+    }
+
+    // DELETE /coupon/{id}
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable UUID id) {
+        return couponService.delete(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    // POST /coupon/{id}/redeem
+    @PostMapping("/{id}/redeem")
+    public Mono<ResponseEntity<Void>> redeem(@PathVariable UUID id) {
+        return couponService.redeem(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    // POST /coupon/code/{code}/redeem
+    @PostMapping("/code/{code}/redeem")
+    public Mono<ResponseEntity<Void>> redeemByCode(@PathVariable String code) {
+        return couponService.redeemByCode(code).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.BatchItemStatusEnum;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private int index;
+    private BatchItemStatusEnum status;
+    private UUID id;
+    private String code;
+    private String error;
+
+    public BatchItemResult() {
+    }
+
+    public BatchItemResult(int index, BatchItemStatusEnum status, UUID id, String code, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.code = code;
+        this.error = error;
+    }
+
+    public static BatchItemResult created(int index, UUID id, String code) {
+        return new BatchItemResult(index, BatchItemStatusEnum.CREATED, id, code, null);
+    }
+
+    public static BatchItemResult failed(int index, BatchItemStatusEnum status, String error) {
+        return new BatchItemResult(index, status, null, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public BatchItemStatusEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(BatchItemStatusEnum status) {
+        this.status = status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class BulkDeleteRequest {
+
+    // Either ids or filter must be informed; ids win when both are present
+    private List<UUID> ids;
+    private CouponFilter filter;
+    // Required to delete with an empty (or missing) filter, which matches every live coupon
+    private Boolean all;
+
+    public BulkDeleteRequest() {
+    }
+
+    public BulkDeleteRequest(List<UUID> ids, CouponFilter filter) {
+        this.ids = ids;
+        this.filter = filter;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public CouponFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(CouponFilter filter) {
+        this.filter = filter;
+    }
+
+    public Boolean getAll() {
+        return all;
+    }
+
+    public void setAll(Boolean all) {
+        this.all = all;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+public class BulkDeleteResponse {
+
+    private long deleted;
+
+    public BulkDeleteResponse() {
+    }
+
+    public BulkDeleteResponse(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.dto;
+
+public class CacheStatsResponse {
+
+    private Stats byId;
+    private Stats byCode;
+    private Stats json;
+
+    public CacheStatsResponse() {
+    }
+
+    public Stats getById() {
+        return byId;
+    }
+
+    public void setById(Stats byId) {
+        this.byId = byId;
+    }
+
+    public Stats getByCode() {
+        return byCode;
+    }
+
+    public void setByCode(Stats byCode) {
+        this.byCode = byCode;
+    }
+
+    public Stats getJson() {
+        return json;
+    }
+
+    public void setJson(Stats json) {
+        this.json = json;
+    }
+
+    public static class Stats {
+
+        private long size;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private double hitRate;
+
+        public Stats() {
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public void setHits(long hits) {
+            this.hits = hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public void setMisses(long misses) {
+            this.misses = misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public void setEvictions(long evictions) {
+            this.evictions = evictions;
+        }
+
+        public double getHitRate() {
+            return hitRate;
+        }
+
+        public void setHitRate(double hitRate) {
+            this.hitRate = hitRate;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartEvaluationRequest {
+
+    @NotNull
+    @DecimalMin("0.00")
+    @Digits(integer = 10, fraction = 2)
+    private BigDecimal cartTotal;
+
+    @NotEmpty
+    private List<String> codes;
+
+    public CartEvaluationRequest() {
+    }
+
+    public CartEvaluationRequest(BigDecimal cartTotal, List<String> codes) {
+        this.cartTotal = cartTotal;
+        this.codes = codes;
+    }
+
+    public BigDecimal getCartTotal() {
+        return cartTotal;
+    }
+
+    public void setCartTotal(BigDecimal cartTotal) {
+        this.cartTotal = cartTotal;
+    }
+
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public void setCodes(List<String> codes) {
+        this.codes = codes;
+    }
+}
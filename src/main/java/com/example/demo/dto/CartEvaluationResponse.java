@@ -0,0 +1,57 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartEvaluationResponse {
+
+    private BigDecimal cartTotal;
+    // null when no code applies
+    private CouponEvaluation best;
+    private BigDecimal totalAfterDiscount;
+    // Same order as the requested codes
+    private List<CouponEvaluation> results;
+
+    public CartEvaluationResponse() {
+    }
+
+    public CartEvaluationResponse(BigDecimal cartTotal, CouponEvaluation best, BigDecimal totalAfterDiscount,
+                                  List<CouponEvaluation> results) {
+        this.cartTotal = cartTotal;
+        this.best = best;
+        this.totalAfterDiscount = totalAfterDiscount;
+        this.results = results;
+    }
+
+    public BigDecimal getCartTotal() {
+        return cartTotal;
+    }
+
+    public void setCartTotal(BigDecimal cartTotal) {
+        this.cartTotal = cartTotal;
+    }
+
+    public CouponEvaluation getBest() {
+        return best;
+    }
+
+    public void setBest(CouponEvaluation best) {
+        this.best = best;
+    }
+
+    public BigDecimal getTotalAfterDiscount() {
+        return totalAfterDiscount;
+    }
+
+    public void setTotalAfterDiscount(BigDecimal totalAfterDiscount) {
+        this.totalAfterDiscount = totalAfterDiscount;
+    }
+
+    public List<CouponEvaluation> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CouponEvaluation> results) {
+        this.results = results;
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.demo.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 
@@ -14,12 +17,15 @@ public class CouponDTO {
     @NotBlank
     private String code;
 
+    // Column is VARCHAR(350)
     @NotBlank
+    @Size(max = 350)
     private String description;
 
     @NotNull
     @Min(0)
-    private Double discountValue;
+    @Digits(integer = 10, fraction = 2)
+    private BigDecimal discountValue;
 
     @NotNull
     @FutureOrPresent
@@ -27,11 +33,19 @@ public class CouponDTO {
 
     private Boolean published;
 
+    // Multi-use coupon: total redemptions across all customers; null keeps it single-use
+    @Min(1)
+    private Integer maxUses;
+
+    // Requires maxUses and the X-Customer-Id header on redemption
+    @Min(1)
+    private Integer maxUsesPerCustomer;
+
     public CouponDTO(){
 
     }
 
-    public CouponDTO(String code, String description, Double discountValue, Instant expirationDate, Boolean published) {
+    public CouponDTO(String code, String description, BigDecimal discountValue, Instant expirationDate, Boolean published) {
         this.code = code;
         this.description = description;
         this.discountValue = discountValue;
@@ -47,11 +61,11 @@ public class CouponDTO {
         this.code = code;
     }
 
-    public Double getDiscountValue() {
+    public BigDecimal getDiscountValue() {
         return discountValue;
     }
 
-    public void setDiscountValue(Double discountValue) {
+    public void setDiscountValue(BigDecimal discountValue) {
         this.discountValue = discountValue;
     }
 
@@ -78,4 +92,20 @@ public class CouponDTO {
     public void setPublished(Boolean published) {
         this.published = published;
     }
+
+    public Integer getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(Integer maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    public Integer getMaxUsesPerCustomer() {
+        return maxUsesPerCustomer;
+    }
+
+    public void setMaxUsesPerCustomer(Integer maxUsesPerCustomer) {
+        this.maxUsesPerCustomer = maxUsesPerCustomer;
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One code of a cart evaluation: the discount it would give, or why it does not apply
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CouponEvaluation {
+
+    private String code;
+    private UUID couponId;
+    private boolean applicable;
+    private BigDecimal discount;
+    private String reason;
+
+    public CouponEvaluation() {
+    }
+
+    public CouponEvaluation(String code, UUID couponId, boolean applicable, BigDecimal discount, String reason) {
+        this.code = code;
+        this.couponId = couponId;
+        this.applicable = applicable;
+        this.discount = discount;
+        this.reason = reason;
+    }
+
+    public static CouponEvaluation applicable(String code, UUID couponId, BigDecimal discount) {
+        return new CouponEvaluation(code, couponId, true, discount, null);
+    }
+
+    public static CouponEvaluation rejected(String code, UUID couponId, String reason) {
+        return new CouponEvaluation(code, couponId, false, null, reason);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public void setCouponId(UUID couponId) {
+        this.couponId = couponId;
+    }
+
+    public boolean isApplicable() {
+        return applicable;
+    }
+
+    public void setApplicable(boolean applicable) {
+        this.applicable = applicable;
+    }
+
+    public BigDecimal getDiscount() {
+        return discount;
+    }
+
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.CouponStatusEnum;
+
+import java.time.Instant;
+
+public class CouponFilter {
+
+    // When null every status except DELETED is returned
+    private CouponStatusEnum status;
+    private Boolean published;
+    private Boolean redeemed;
+    private Instant expiresAfter;
+    private Instant expiresBefore;
+
+    public CouponFilter() {
+    }
+
+    // True when no criterion is set, i.e. the filter matches every live coupon
+    public boolean isEmpty() {
+        return status == null && published == null && redeemed == null && expiresAfter == null && expiresBefore == null;
+    }
+
+    public CouponStatusEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(CouponStatusEnum status) {
+        this.status = status;
+    }
+
+    public Boolean getPublished() {
+        return published;
+    }
+
+    public void setPublished(Boolean published) {
+        this.published = published;
+    }
+
+    public Boolean getRedeemed() {
+        return redeemed;
+    }
+
+    public void setRedeemed(Boolean redeemed) {
+        this.redeemed = redeemed;
+    }
+
+    public Instant getExpiresAfter() {
+        return expiresAfter;
+    }
+
+    public void setExpiresAfter(Instant expiresAfter) {
+        this.expiresAfter = expiresAfter;
+    }
+
+    public Instant getExpiresBefore() {
+        return expiresBefore;
+    }
+
+    public void setExpiresBefore(Instant expiresBefore) {
+        this.expiresBefore = expiresBefore;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public class CouponGenerateRequest {
+
+    @NotBlank
+    private String description;
+
+    @NotNull
+    @Min(0)
+    @Digits(integer = 10, fraction = 2)
+    private BigDecimal discountValue;
+
+    @NotNull
+    @FutureOrPresent
+    private Instant expirationDate;
+
+    private Boolean published;
+
+    public CouponGenerateRequest() {
+    }
+
+    public CouponGenerateRequest(String description, BigDecimal discountValue, Instant expirationDate, Boolean published) {
+        this.description = description;
+        this.discountValue = discountValue;
+        this.expirationDate = expirationDate;
+        this.published = published;
+    }
+
+    public CouponDTO toCoupon(String code) {
+        return new CouponDTO(code, description, discountValue, expirationDate, published);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getDiscountValue() {
+        return discountValue;
+    }
+
+    public void setDiscountValue(BigDecimal discountValue) {
+        this.discountValue = discountValue;
+    }
+
+    public Instant getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Instant expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public Boolean getPublished() {
+        return published;
+    }
+
+    public void setPublished(Boolean published) {
+        this.published = published;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+// One requested id or code: the coupon when found, otherwise found=false and the reason
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CouponLookupItem {
+
+    private UUID id;
+    private String code;
+    private boolean found;
+    private CouponResponse coupon;
+    private String reason;
+
+    public CouponLookupItem() {
+    }
+
+    public CouponLookupItem(UUID id, String code, boolean found, CouponResponse coupon, String reason) {
+        this.id = id;
+        this.code = code;
+        this.found = found;
+        this.coupon = coupon;
+        this.reason = reason;
+    }
+
+    public static CouponLookupItem found(UUID id, String code, CouponResponse coupon) {
+        return new CouponLookupItem(id, code, true, coupon, null);
+    }
+
+    public static CouponLookupItem notFound(UUID id, String code, String reason) {
+        return new CouponLookupItem(id, code, false, null, reason);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public CouponResponse getCoupon() {
+        return coupon;
+    }
+
+    public void setCoupon(CouponResponse coupon) {
+        this.coupon = coupon;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class CouponLookupRequest {
+
+    // Either or both may be informed; each list is answered in its own order
+    private List<UUID> ids;
+    private List<String> codes;
+
+    public CouponLookupRequest() {
+    }
+
+    public CouponLookupRequest(List<UUID> ids, List<String> codes) {
+        this.ids = ids;
+        this.codes = codes;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public void setCodes(List<String> codes) {
+        this.codes = codes;
+    }
+}
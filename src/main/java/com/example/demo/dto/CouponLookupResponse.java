@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class CouponLookupResponse {
+
+    // Same order as the requested ids and codes, one item per requested entry
+    private List<CouponLookupItem> byId;
+    private List<CouponLookupItem> byCode;
+
+    public CouponLookupResponse() {
+    }
+
+    public CouponLookupResponse(List<CouponLookupItem> byId, List<CouponLookupItem> byCode) {
+        this.byId = byId;
+        this.byCode = byCode;
+    }
+
+    public List<CouponLookupItem> getById() {
+        return byId;
+    }
+
+    public void setById(List<CouponLookupItem> byId) {
+        this.byId = byId;
+    }
+
+    public List<CouponLookupItem> getByCode() {
+        return byCode;
+    }
+
+    public void setByCode(List<CouponLookupItem> byCode) {
+        this.byCode = byCode;
+    }
+}
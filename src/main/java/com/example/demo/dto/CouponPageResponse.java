@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class CouponPageResponse {
+
+    private List<CouponResponse> items;
+    private UUID nextCursor;
+
+    public CouponPageResponse() {
+    }
+
+    public CouponPageResponse(List<CouponResponse> items, UUID nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CouponResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CouponResponse> items) {
+        this.items = items;
+    }
+
+    public UUID getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(UUID nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
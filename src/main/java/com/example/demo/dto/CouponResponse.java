@@ -2,6 +2,7 @@ package com.example.demo.dto;
 
 import com.example.demo.enums.CouponStatusEnum;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -11,16 +12,20 @@ public class CouponResponse {
     private UUID id;
     private String code;
     private String description;
-    private Double discountValue;
+    private BigDecimal discountValue;
     private Instant expirationDate;
     private CouponStatusEnum status;
     private Boolean published;
     private Boolean redeemed;
+    private Integer maxUses;
+    private Integer maxUsesPerCustomer;
+    // Reconciled periodically from the nodes' counters, so it trails the live count
+    private Integer redemptionCount;
 
     public CouponResponse() {
     }
 
-    public CouponResponse(UUID id, String code, String description, Double discountValue, Instant expirationDate, CouponStatusEnum status, Boolean published, Boolean redeemed) {
+    public CouponResponse(UUID id, String code, String description, BigDecimal discountValue, Instant expirationDate, CouponStatusEnum status, Boolean published, Boolean redeemed) {
         this.id = id;
         this.code = code;
         this.description = description;
@@ -55,11 +60,11 @@ public class CouponResponse {
         this.description = description;
     }
 
-    public Double getDiscountValue() {
+    public BigDecimal getDiscountValue() {
         return discountValue;
     }
 
-    public void setDiscountValue(Double discountValue) {
+    public void setDiscountValue(BigDecimal discountValue) {
         this.discountValue = discountValue;
     }
 
@@ -94,4 +99,28 @@ public class CouponResponse {
     public void setRedeemed(Boolean redeemed) {
         this.redeemed = redeemed;
     }
+
+    public Integer getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(Integer maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    public Integer getMaxUsesPerCustomer() {
+        return maxUsesPerCustomer;
+    }
+
+    public void setMaxUsesPerCustomer(Integer maxUsesPerCustomer) {
+        this.maxUsesPerCustomer = maxUsesPerCustomer;
+    }
+
+    public Integer getRedemptionCount() {
+        return redemptionCount;
+    }
+
+    public void setRedemptionCount(Integer redemptionCount) {
+        this.redemptionCount = redemptionCount;
+    }
 }
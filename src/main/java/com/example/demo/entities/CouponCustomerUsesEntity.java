@@ -0,0 +1,84 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+// Redemptions of one customer on a coupon with maxUsesPerCustomer; each customer is its own row,
+// so there is no single hot row however popular the code is
+@Entity
+@Table(name = "COUPON_CUSTOMER_USES")
+@IdClass(CouponCustomerUsesEntity.Key.class)
+public class CouponCustomerUsesEntity {
+
+    @Id
+    private UUID couponId;
+
+    @Id
+    @Column(length = 64)
+    private String customerId;
+
+    @Column(nullable = false)
+    private Integer uses;
+
+    public CouponCustomerUsesEntity() {
+    }
+
+    public CouponCustomerUsesEntity(UUID couponId, String customerId, Integer uses) {
+        this.couponId = couponId;
+        this.customerId = customerId;
+        this.uses = uses;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public void setCouponId(UUID couponId) {
+        this.couponId = couponId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public Integer getUses() {
+        return uses;
+    }
+
+    public void setUses(Integer uses) {
+        this.uses = uses;
+    }
+
+    public static class Key implements Serializable {
+
+        private UUID couponId;
+        private String customerId;
+
+        public Key() {
+        }
+
+        public Key(UUID couponId, String customerId) {
+            this.couponId = couponId;
+            this.customerId = customerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(couponId, other.couponId)
+                    && Objects.equals(customerId, other.customerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(couponId, customerId);
+        }
+    }
+}
@@ -2,36 +2,75 @@ package com.example.demo.entities;
 
 import com.example.demo.enums.CouponStatusEnum;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "COUPONS")
+@Table(name = "COUPONS", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_COUPONS_LIVE_CODE", columnNames = "live_code")
+}, indexes = {
+        // Listing filters: equality on status/flags, then seek on id
+        @Index(name = "IDX_COUPONS_STATUS_FLAGS_ID", columnList = "status, published, redeemed, id"),
+        @Index(name = "IDX_COUPONS_STATUS_EXPIRATION", columnList = "status, expiration_date, id"),
+        // Code index refresh: rows inserted since the last watermark
+        @Index(name = "IDX_COUPONS_CREATED_AT", columnList = "created_at")
+})
 public class CouponEntity {
 
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     private String code;
 
+    // Same as code while the coupon is not DELETED, null afterwards, so the unique index only covers live coupons
+    @Column(name = "live_code", length = 6)
+    private String liveCode;
+
     @Column(length = 350)
     private String description;
 
-    private Double discountValue;
+    // Money: exact decimal with cents, never a binary floating point
+    @Column(precision = 12, scale = 2)
+    private BigDecimal discountValue;
 
     private Instant expirationDate;
+    // Plain VARCHAR rather than a dialect-specific enum type, so the Flyway schema is portable and validates
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
     private CouponStatusEnum status;
     private Boolean published;
     private Boolean redeemed;
 
+    // Multi-use coupons only; null keeps the coupon single-use and tracked by `redeemed`
+    private Integer maxUses;
+    private Integer maxUsesPerCustomer;
+
+    // Uses handed out to nodes as quota slices, never above maxUses
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer allocatedUses = 0;
+
+    // Redemptions flushed by each node's reconciliation; lags by up to one interval
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer redemptionCount = 0;
+
+    // Filled by the database default on insert, never written by the application
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
     public CouponEntity(){}
 
-    public CouponEntity(UUID id, String code, String description, Double discountValue, Instant expirationDate, CouponStatusEnum status, Boolean published, Boolean redeemed) {
+    public CouponEntity(UUID id, String code, String description, BigDecimal discountValue, Instant expirationDate, CouponStatusEnum status, Boolean published, Boolean redeemed) {
         this.id = id;
         this.code = code;
         this.description = description;
@@ -58,6 +97,14 @@ public class CouponEntity {
         this.code = code;
     }
 
+    public String getLiveCode() {
+        return liveCode;
+    }
+
+    public void setLiveCode(String liveCode) {
+        this.liveCode = liveCode;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -66,11 +113,11 @@ public class CouponEntity {
         this.description = description;
     }
 
-    public Double getDiscountValue() {
+    public BigDecimal getDiscountValue() {
         return discountValue;
     }
 
-    public void setDiscountValue(Double discountValue) {
+    public void setDiscountValue(BigDecimal discountValue) {
         this.discountValue = discountValue;
     }
 
@@ -106,4 +153,46 @@ public class CouponEntity {
         this.redeemed = redeemed;
     }
 
+    public Integer getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(Integer maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    public Integer getMaxUsesPerCustomer() {
+        return maxUsesPerCustomer;
+    }
+
+    public void setMaxUsesPerCustomer(Integer maxUsesPerCustomer) {
+        this.maxUsesPerCustomer = maxUsesPerCustomer;
+    }
+
+    public Integer getAllocatedUses() {
+        return allocatedUses;
+    }
+
+    public void setAllocatedUses(Integer allocatedUses) {
+        this.allocatedUses = allocatedUses;
+    }
+
+    public Integer getRedemptionCount() {
+        return redemptionCount;
+    }
+
+    public void setRedemptionCount(Integer redemptionCount) {
+        this.redemptionCount = redemptionCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncLiveCode() {
+        this.liveCode = CouponStatusEnum.DELETED.equals(status) ? null : code;
+    }
+
 }
@@ -0,0 +1,95 @@
+package com.example.demo.entities;
+
+import com.example.demo.enums.CouponEventTypeEnum;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One pending coupon event; the identity id is the order in which the relay publishes
+@Entity
+@Table(name = "COUPON_OUTBOX")
+public class CouponOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID couponId;
+
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private CouponEventTypeEnum eventType;
+
+    // Event data as JSON, {} when the event carries nothing beyond the coupon
+    @Column(nullable = false, length = 8192)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public CouponOutboxEntity() {
+    }
+
+    public CouponOutboxEntity(UUID couponId, String code, CouponEventTypeEnum eventType, String payload, Instant createdAt) {
+        this.couponId = couponId;
+        this.code = code;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public void setCouponId(UUID couponId) {
+        this.couponId = couponId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public CouponEventTypeEnum getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(CouponEventTypeEnum eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
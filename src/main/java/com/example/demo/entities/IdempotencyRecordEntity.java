@@ -0,0 +1,83 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "IDEMPOTENCY_KEYS", indexes = {
+        @Index(name = "IDX_IDEMPOTENCY_KEYS_CREATED_AT", columnList = "created_at")
+})
+public class IdempotencyRecordEntity {
+
+    // responseStatus of a claimed key whose operation has not finished yet
+    public static final int IN_FLIGHT = 0;
+
+    // Operation-scoped key, e.g. "create:<Idempotency-Key>"
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private Integer responseStatus;
+
+    @Column(length = 8192)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public IdempotencyRecordEntity() {
+    }
+
+    public IdempotencyRecordEntity(String key, String fingerprint, Integer responseStatus, String responseBody, Instant createdAt) {
+        this.key = key;
+        this.fingerprint = fingerprint;
+        this.responseStatus = responseStatus;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
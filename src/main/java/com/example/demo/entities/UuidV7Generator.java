@@ -0,0 +1,47 @@
+package com.example.demo.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// RFC 9562 UUIDv7: 48-bit Unix millis, version, 12-bit counter, variant, 62 random bits.
+// New keys sort after the previous ones, so inserts land on the right edge of the primary-key index.
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    // millis << 12 | counter; bumped by one per id so ids stay strictly increasing in this JVM, even when
+    // several are drawn in the same millisecond or the clock steps back
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST_STAMP.updateAndGet(last -> Math.max(last + 1, now));
+
+        long msb = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        // Keys are not secrets (the coupon code is), so the random tail does not need SecureRandom
+        long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+        return new UUID(msb, lsb);
+    }
+
+    // Smallest v7 id of the given millisecond: every id generated at or after it compares >=
+    public static UUID lowerBound(long epochMillis) {
+        return new UUID(epochMillis << 16 | 0x7000L, 0x8000000000000000L);
+    }
+}
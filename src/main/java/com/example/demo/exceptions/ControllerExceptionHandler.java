@@ -1,5 +1,6 @@
 package com.example.demo.exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,11 +14,39 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
+    @ExceptionHandler(CouponAlreadyRedeemedException.class)
+    public ResponseEntity<String> handleCouponAlreadyRedeemed(CouponAlreadyRedeemedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(CouponUsageLimitReachedException.class)
+    public ResponseEntity<String> handleCouponUsageLimitReached(CouponUsageLimitReachedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(CouponCodeAlreadyExistsException.class)
+    public ResponseEntity<String> handleCouponCodeAlreadyExists(CouponCodeAlreadyExistsException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
     @ExceptionHandler(CouponNotFoundException.class)
     public ResponseEntity<String> handleCouponNotFound(CouponNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    // The first request with the key is still running, possibly on another instance
+    @ExceptionHandler(IdempotencyKeyInFlightException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInFlight(IdempotencyKeyInFlightException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<String> handleBusinessException(BusinessException ex) {
         return ResponseEntity
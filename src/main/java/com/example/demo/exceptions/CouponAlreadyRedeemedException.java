@@ -0,0 +1,7 @@
+package com.example.demo.exceptions;
+
+public class CouponAlreadyRedeemedException extends RuntimeException {
+    public CouponAlreadyRedeemedException(String message) {
+        super(message);
+    }
+}
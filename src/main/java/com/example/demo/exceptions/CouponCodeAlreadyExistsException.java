@@ -0,0 +1,7 @@
+package com.example.demo.exceptions;
+
+public class CouponCodeAlreadyExistsException extends RuntimeException {
+    public CouponCodeAlreadyExistsException(String message) {
+        super(message);
+    }
+}
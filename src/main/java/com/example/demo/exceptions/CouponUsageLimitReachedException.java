@@ -0,0 +1,7 @@
+package com.example.demo.exceptions;
+
+public class CouponUsageLimitReachedException extends RuntimeException {
+    public CouponUsageLimitReachedException(String message) {
+        super(message);
+    }
+}
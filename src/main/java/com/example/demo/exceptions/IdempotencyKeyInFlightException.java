@@ -0,0 +1,7 @@
+package com.example.demo.exceptions;
+
+public class IdempotencyKeyInFlightException extends RuntimeException {
+    public IdempotencyKeyInFlightException(String message) {
+        super(message);
+    }
+}
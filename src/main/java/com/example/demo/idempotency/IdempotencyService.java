@@ -0,0 +1,226 @@
+package com.example.demo.idempotency;
+
+import com.example.demo.entities.IdempotencyRecordEntity;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.IdempotencyKeyInFlightException;
+import com.example.demo.exceptions.IdempotencyKeyReusedException;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Replays the first successful response for an Idempotency-Key. Concurrent duplicates wait on the
+// in-flight future instead of running the operation again. Failures are not stored, so a retry after
+// an error runs again. With the JDBC store the key is claimed with an INSERT before the operation runs,
+// so a duplicate on another instance gets 409 while the first one is in flight.
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final AsyncCache<String, StoredResponse> responses;
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean jdbcEnabled;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${coupon.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${coupon.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${coupon.idempotency.jdbc.enabled:false}") boolean jdbcEnabled,
+                              @Value("${coupon.idempotency.jdbc.claim-timeout:60s}") Duration claimTimeout) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.jdbcEnabled = jdbcEnabled;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public <T> ResponseEntity<T> execute(String operation, String key, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> call) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopedKey = operation + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> inFlight = responses.asMap().putIfAbsent(scopedKey, mine);
+
+        if (inFlight == null) {
+            try {
+                StoredResponse persisted = claim(scopedKey, fingerprint);
+                if (persisted != null) {
+                    mine.complete(persisted);
+                    return replay(persisted, fingerprint, bodyType);
+                }
+
+                ResponseEntity<T> response;
+                try {
+                    response = call.get();
+                } catch (RuntimeException ex) {
+                    release(scopedKey);
+                    throw ex;
+                }
+                StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(), toJson(response.getBody()));
+                store(scopedKey, stored);
+                mine.complete(stored);
+                return response;
+            } catch (RuntimeException ex) {
+                // A failed future is dropped from the cache, so the next retry runs the operation again
+                mine.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        return replay(await(inFlight), fingerprint, bodyType);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.idempotency.jdbc.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!jdbcEnabled) {
+            return;
+        }
+        int purged = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    // Returns null when this request now owns the key, or the stored response of the request that finished first
+    private StoredResponse claim(String scopedKey, String fingerprint) {
+        if (!jdbcEnabled) {
+            return null;
+        }
+        for (int attempt = 0; ; attempt++) {
+            Instant now = Instant.now();
+            try {
+                repository.claim(scopedKey, fingerprint, now);
+                return null;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt > 0) {
+                    throw inFlight();
+                }
+            }
+
+            // Read on the primary: the replica may not have the other request's row yet
+            IdempotencyRecordEntity record = ReadWriteRoutingDataSource.onPrimary(() -> repository.findById(scopedKey)).orElse(null);
+            if (record == null || repository.deleteStale(scopedKey, now.minus(ttl), now.minus(claimTimeout)) > 0) {
+                // Released, expired or abandoned by a crashed owner: claim it once more
+                continue;
+            }
+            if (!record.getFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(HEADER + " was already used with a different request");
+            }
+            if (record.getResponseStatus() == IdempotencyRecordEntity.IN_FLIGHT) {
+                throw inFlight();
+            }
+            return new StoredResponse(record.getFingerprint(), record.getResponseStatus(), record.getResponseBody());
+        }
+    }
+
+    // The operation already succeeded: a failed write must not turn it into an error, only cost the cross-node replay
+    private void store(String scopedKey, StoredResponse stored) {
+        if (!jdbcEnabled) {
+            return;
+        }
+        try {
+            repository.complete(scopedKey, stored.getStatus(), stored.getBody());
+        } catch (RuntimeException ex) {
+            log.warn("Could not store idempotent response for {}", scopedKey, ex);
+        }
+    }
+
+    private void release(String scopedKey) {
+        if (!jdbcEnabled) {
+            return;
+        }
+        try {
+            repository.release(scopedKey);
+        } catch (RuntimeException ex) {
+            // The claim is taken over once coupon.idempotency.jdbc.claim-timeout passes
+            log.warn("Could not release idempotency key {}", scopedKey, ex);
+        }
+    }
+
+    private static IdempotencyKeyInFlightException inFlight() {
+        return new IdempotencyKeyInFlightException("A request with this " + HEADER + " is still in progress");
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, Class<T> bodyType) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(HEADER + " was already used with a different request");
+        }
+
+        T body = null;
+        if (stored.getBody() != null) {
+            try {
+                body = objectMapper.readValue(stored.getBody(), bodyType);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Stored idempotent response is not readable", ex);
+            }
+        }
+
+        return ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Request is not serializable", ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response is not serializable", ex);
+        }
+    }
+}
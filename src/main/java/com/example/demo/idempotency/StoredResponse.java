@@ -0,0 +1,42 @@
+package com.example.demo.idempotency;
+
+// First response recorded for an Idempotency-Key; body is the JSON payload, null for bodyless responses
+public class StoredResponse {
+
+    private String fingerprint;
+    private int status;
+    private String body;
+
+    public StoredResponse() {
+    }
+
+    public StoredResponse(String fingerprint, int status, String body) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.index;
+
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.repository.LiveCodeRow;
+import com.example.demo.service.CouponCodeSanitizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Every live code of the database in memory, so a mistyped or guessed code is answered 404 without a query.
+// A sanitized code is 6 characters of [0-9A-Za-z], a base-62 number below 62^6 that is used as a long key.
+//
+// The index only ever answers "certainly absent": a code it knows is still checked against the cache and
+// the database as before. Codes are added by this node's inserts and by CouponCodeIndexLoader (startup
+// load, then periodic pickup of other nodes' inserts); a deleted code stays until it is seen as deleted.
+@Component
+public class CouponCodeIndex implements MeterBinder {
+
+    private static final byte DELETED = (byte) CouponStatusEnum.DELETED.ordinal();
+    private static final CouponStatusEnum[] STATUSES = CouponStatusEnum.values();
+
+    // null when disabled
+    private final LongCodeTable table;
+    private final LongAdder rejected = new LongAdder();
+    // Until the first full load the index is incomplete and rejects nothing
+    private volatile boolean ready;
+
+    public CouponCodeIndex(@Value("${coupon.code-index.enabled:false}") boolean enabled,
+                           @Value("${coupon.code-index.expected-codes:1000000}") int expectedCodes) {
+        this.table = enabled ? new LongCodeTable(expectedCodes) : null;
+    }
+
+    // false only when the code is certainly not live: unknown to a loaded index, or known as DELETED
+    public boolean mayExist(String code) {
+        if (!ready) {
+            return true;
+        }
+
+        long key = encode(code);
+        int status = key < 0 ? LongCodeTable.ABSENT : table.status(key);
+        if (status == LongCodeTable.ABSENT || status == DELETED) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // As last seen by this node; null when unknown
+    public CouponStatusEnum statusOf(String code) {
+        long key = table == null ? -1 : encode(code);
+        int status = key < 0 ? LongCodeTable.ABSENT : table.status(key);
+        return status == LongCodeTable.ABSENT ? null : STATUSES[status];
+    }
+
+    public UUID idOf(String code) {
+        long key = table == null ? -1 : encode(code);
+        long[] id = key < 0 ? null : table.id(key);
+        return id == null ? null : new UUID(id[0], id[1]);
+    }
+
+    public void add(UUID id, String code, CouponStatusEnum status) {
+        long key = table == null || code == null ? -1 : encode(code);
+        if (key >= 0) {
+            table.put(key, id.getMostSignificantBits(), id.getLeastSignificantBits(), (byte) status.ordinal());
+        }
+    }
+
+    public void markDeleted(String code) {
+        long key = table == null || code == null ? -1 : encode(code);
+        if (key >= 0) {
+            table.setStatus(key, DELETED);
+        }
+    }
+
+    // Rows from the startup scan; the index starts rejecting once the first one completes
+    public void load(Stream<LiveCodeRow> rows) {
+        rows.forEach(row -> add(row.id(), row.code(), row.status()));
+        if (table != null) {
+            ready = true;
+        }
+    }
+
+    public boolean isEnabled() {
+        return table != null;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return table == null ? 0 : table.size();
+    }
+
+    public long memoryBytes() {
+        return table == null ? 0 : table.memoryBytes();
+    }
+
+    // coupon.code_index.size / .memory / .rejected
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (table == null) {
+            return;
+        }
+        Gauge.builder("coupon.code_index.size", this, CouponCodeIndex::size).register(registry);
+        Gauge.builder("coupon.code_index.memory", this, CouponCodeIndex::memoryBytes).baseUnit("bytes").register(registry);
+        FunctionCounter.builder("coupon.code_index.rejected", rejected, LongAdder::sum).register(registry);
+    }
+
+    // Base 62 value + 1, so that 0 stays free as the table's empty marker; -1 when not a sanitized code
+    static long encode(String code) {
+        if (code.length() != CouponCodeSanitizer.CODE_LENGTH) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < CouponCodeSanitizer.CODE_LENGTH; i++) {
+            int digit = digit(code.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            key = key * 62 + digit;
+        }
+        return key + 1;
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 36;
+        }
+        return -1;
+    }
+}
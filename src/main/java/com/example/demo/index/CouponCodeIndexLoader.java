@@ -0,0 +1,104 @@
+package com.example.demo.index;
+
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.repository.LiveCodeRow;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Fills CouponCodeIndex from one streamed scan of COUPONS once the app is up (requests are served meanwhile,
+// the index rejects nothing until it completes), then picks up codes inserted by other nodes: rows whose
+// database insert time (created_at) is at least the newest one seen so far minus `overlap`. Every read is
+// pinned to the primary so replica lag cannot hide a row, and a periodic full reload heals any row a
+// refresh still missed (a transaction that committed more than `overlap` after its insert).
+@Component
+@ConditionalOnProperty(name = "coupon.code-index.enabled", havingValue = "true")
+public class CouponCodeIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCodeIndexLoader.class);
+
+    private final CouponCodeIndex index;
+    private final CouponRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final Duration overlap;
+
+    // Newest created_at read so far, a database clock value; null until a pass has seen a row
+    private Instant watermark;
+    private boolean loaded;
+
+    public CouponCodeIndexLoader(CouponCodeIndex index,
+                                 CouponRepository repository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${coupon.code-index.fetch-size:10000}") int fetchSize,
+                                 @Value("${coupon.code-index.refresh-overlap:5s}") Duration overlap) {
+        this.index = index;
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.overlap = overlap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.nanoTime();
+
+        scan(null, index::load);
+        loaded = true;
+
+        log.info("Coupon code index loaded: {} codes, {} MB in {} ms", index.size(),
+                index.memoryBytes() / (1024 * 1024), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.code-index.refresh-interval-ms:1000}")
+    public synchronized void refresh() {
+        if (!loaded) {
+            return;
+        }
+
+        Instant since = watermark == null ? null : watermark.minus(overlap);
+        scan(since, rows -> rows.forEach(row -> index.add(row.id(), row.code(), row.status())));
+    }
+
+    // Re-adds every live code; adding a code already present only rewrites its slot
+    @Scheduled(initialDelayString = "${coupon.code-index.full-reload-interval-ms:600000}",
+            fixedDelayString = "${coupon.code-index.full-reload-interval-ms:600000}")
+    public synchronized void reload() {
+        if (!loaded) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        scan(null, rows -> rows.forEach(row -> index.add(row.id(), row.code(), row.status())));
+        log.debug("Coupon code index reloaded: {} codes in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void scan(Instant since, Consumer<Stream<LiveCodeRow>> consumer) {
+        ReadWriteRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            try (Stream<LiveCodeRow> rows = repository.streamLiveCodes(since, fetchSize)) {
+                consumer.accept(rows.peek(this::advanceWatermark));
+            }
+            return null;
+        }));
+    }
+
+    private void advanceWatermark(LiveCodeRow row) {
+        if (row.createdAt() != null && (watermark == null || row.createdAt().isAfter(watermark))) {
+            watermark = row.createdAt();
+        }
+    }
+}
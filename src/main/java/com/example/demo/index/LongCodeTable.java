@@ -0,0 +1,184 @@
+package com.example.demo.index;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Open-addressing map from a non-zero long key to (id high bits, id low bits, status byte), kept in
+// parallel primitive arrays with linear probing: 25 bytes per slot, no per-entry objects.
+// Writers take the write lock; readers probe optimistically and only lock when a write raced them.
+final class LongCodeTable {
+
+    static final int ABSENT = -1;
+
+    private static final long EMPTY = 0L;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int BYTES_PER_SLOT = Long.BYTES * 3 + 1;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Replaced as a whole on resize so a reader never mixes arrays of two sizes
+    private Slots slots;
+    private int size;
+
+    LongCodeTable(int expectedKeys) {
+        this.slots = new Slots(capacityFor(expectedKeys));
+    }
+
+    // Inserts or overwrites the entry of `key`
+    void put(long key, long idHigh, long idLow, byte status) {
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > (long) (slots.keys.length * LOAD_FACTOR)) {
+                grow();
+            }
+            int index = probe(slots, key);
+            if (slots.keys[index] == EMPTY) {
+                slots.keys[index] = key;
+                size++;
+            }
+            slots.idHigh[index] = idHigh;
+            slots.idLow[index] = idLow;
+            slots.status[index] = status;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Changes the status of a present key; absent keys are left absent
+    void setStatus(long key, byte status) {
+        long stamp = lock.writeLock();
+        try {
+            int index = probe(slots, key);
+            if (slots.keys[index] == key) {
+                slots.status[index] = status;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int status(long key) {
+        long stamp = lock.tryOptimisticRead();
+        int status = readStatus(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                status = readStatus(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return status;
+    }
+
+    // {high, low} of the id, or null when absent
+    long[] id(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long[] id = readId(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = readId(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    long memoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) slots.keys.length * BYTES_PER_SLOT;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int readStatus(long key) {
+        Slots current = slots;
+        int index = probe(current, key);
+        return current.keys[index] == key ? current.status[index] : ABSENT;
+    }
+
+    private long[] readId(long key) {
+        Slots current = slots;
+        int index = probe(current, key);
+        return current.keys[index] == key ? new long[]{current.idHigh[index], current.idLow[index]} : null;
+    }
+
+    // Slot holding `key`, or the empty slot where it would go. The load factor keeps an empty slot
+    // in every table; the bound only matters for an optimistic reader racing a writer.
+    private static int probe(Slots slots, long key) {
+        long[] keys = slots.keys;
+        int capacity = keys.length;
+        int index = home(key, capacity);
+        for (int i = 0; i < capacity; i++) {
+            long current = keys[index];
+            if (current == key || current == EMPTY) {
+                return index;
+            }
+            if (++index == capacity) {
+                index = 0;
+            }
+        }
+        return index;
+    }
+
+    // Fibonacci hashing, then the top 32 bits scaled to the capacity (no power-of-two rounding)
+    private static int home(long key, int capacity) {
+        long hash = (key * 0x9E3779B97F4A7C15L) >>> 32;
+        return (int) ((hash * capacity) >>> 32);
+    }
+
+    private void grow() {
+        int capacity = slots.keys.length;
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Code index is full at " + size + " codes");
+        }
+
+        Slots old = slots;
+        Slots grown = new Slots((int) Math.min((long) capacity * 2, MAX_CAPACITY));
+        for (int i = 0; i < capacity; i++) {
+            long key = old.keys[i];
+            if (key != EMPTY) {
+                int index = probe(grown, key);
+                grown.keys[index] = key;
+                grown.idHigh[index] = old.idHigh[i];
+                grown.idLow[index] = old.idLow[i];
+                grown.status[index] = old.status[i];
+            }
+        }
+        slots = grown;
+    }
+
+    private static int capacityFor(int expectedKeys) {
+        long capacity = (long) Math.ceil(Math.max(expectedKeys, 1) / LOAD_FACTOR) + 1;
+        return (int) Math.min(Math.max(capacity, MIN_CAPACITY), MAX_CAPACITY);
+    }
+
+    private static final class Slots {
+
+        final long[] keys;
+        final long[] idHigh;
+        final long[] idLow;
+        final byte[] status;
+
+        Slots(int capacity) {
+            this.keys = new long[capacity];
+            this.idHigh = new long[capacity];
+            this.idLow = new long[capacity];
+            this.status = new byte[capacity];
+        }
+    }
+}
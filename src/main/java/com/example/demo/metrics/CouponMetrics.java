@@ -0,0 +1,87 @@
+package com.example.demo.metrics;
+
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CodeNotFoundException;
+import com.example.demo.exceptions.CouponAlreadyDeletedException;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.exceptions.CouponCodeAlreadyExistsException;
+import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.exceptions.CouponUsageLimitReachedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// coupon.operations{operation, outcome}: one timer per service operation and outcome, its count doubles as the counter
+@Component
+public class CouponMetrics {
+
+    public static final String OPERATIONS = "coupon.operations";
+
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ALREADY_DELETED = "already_deleted";
+    public static final String ALREADY_REDEEMED = "already_redeemed";
+    public static final String LIMIT_REACHED = "limit_reached";
+    public static final String CONFLICT = "conflict";
+    public static final String BUSINESS_ERROR = "business_error";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    public CouponMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = SUCCESS;
+        try {
+            return call.get();
+        } catch (RuntimeException ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void run(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder(OPERATIONS)
+                .description("Coupon service operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    static String outcomeOf(RuntimeException ex) {
+        if (ex instanceof CouponNotFoundException || ex instanceof CodeNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (ex instanceof CouponAlreadyDeletedException) {
+            return ALREADY_DELETED;
+        }
+        if (ex instanceof CouponAlreadyRedeemedException) {
+            return ALREADY_REDEEMED;
+        }
+        if (ex instanceof CouponUsageLimitReachedException) {
+            return LIMIT_REACHED;
+        }
+        if (ex instanceof CouponCodeAlreadyExistsException) {
+            return CONFLICT;
+        }
+        if (ex instanceof BusinessException) {
+            return BUSINESS_ERROR;
+        }
+        return ERROR;
+    }
+}
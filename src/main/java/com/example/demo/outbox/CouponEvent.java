@@ -0,0 +1,87 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entities.CouponOutboxEntity;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// What a sink receives; id is the outbox row id, increasing per coupon, so consumers can drop redeliveries
+public class CouponEvent {
+
+    private Long id;
+    private CouponEventTypeEnum type;
+    private UUID couponId;
+    private String code;
+    private Instant occurredAt;
+
+    // Stored as JSON and written through as-is
+    @JsonRawValue
+    private String payload;
+
+    public CouponEvent() {
+    }
+
+    public CouponEvent(Long id, CouponEventTypeEnum type, UUID couponId, String code, Instant occurredAt, String payload) {
+        this.id = id;
+        this.type = type;
+        this.couponId = couponId;
+        this.code = code;
+        this.occurredAt = occurredAt;
+        this.payload = payload;
+    }
+
+    public static CouponEvent of(CouponOutboxEntity row) {
+        return new CouponEvent(row.getId(), row.getEventType(), row.getCouponId(), row.getCode(),
+                row.getCreatedAt(), row.getPayload());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public CouponEventTypeEnum getType() {
+        return type;
+    }
+
+    public void setType(CouponEventTypeEnum type) {
+        this.type = type;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public void setCouponId(UUID couponId) {
+        this.couponId = couponId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
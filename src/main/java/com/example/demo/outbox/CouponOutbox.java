@@ -0,0 +1,108 @@
+package com.example.demo.outbox;
+
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.example.demo.repository.CouponOutboxRepository;
+import com.example.demo.repository.OutboxRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Appends coupon events to COUPON_OUTBOX inside the transaction of the change, after the statement that
+// locked the coupon row: two events of one coupon get increasing ids in commit order. Publishing is left
+// to OutboxRelay, so the request path only pays for one extra INSERT. Every call is a no-op when disabled.
+@Component
+public class CouponOutbox {
+
+    public static final String EMPTY_PAYLOAD = "{}";
+
+    private final CouponOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    public CouponOutbox(CouponOutboxRepository repository,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${coupon.outbox.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.transactionTemplate = enabled ? new TransactionTemplate(transactionManager) : null;
+    }
+
+    // Joins the change and its event in one primary transaction; without the outbox the call keeps
+    // the repository's own transaction, as before
+    public <T> T inTransaction(Supplier<T> change) {
+        if (!enabled) {
+            return change.get();
+        }
+        return transactionTemplate.execute(status -> change.get());
+    }
+
+    public void created(CouponResponse coupon) {
+        if (enabled) {
+            repository.appendById(coupon.getId(), CouponEventTypeEnum.CREATED.name(), createdPayload(coupon));
+        }
+    }
+
+    // One JDBC batch for a whole chunk of new coupons
+    public void createdAll(List<CouponResponse> coupons) {
+        if (enabled && !coupons.isEmpty()) {
+            repository.appendAll(CouponEventTypeEnum.CREATED.name(), coupons.stream()
+                    .map(coupon -> new OutboxRow(coupon.getId(), coupon.getCode(), createdPayload(coupon)))
+                    .toList());
+        }
+    }
+
+    public void deleted(UUID couponId) {
+        if (enabled) {
+            repository.appendById(couponId, CouponEventTypeEnum.DELETED.name(), EMPTY_PAYLOAD);
+        }
+    }
+
+    public void deletedAll(Collection<UUID> couponIds) {
+        if (enabled && !couponIds.isEmpty()) {
+            repository.appendDeletedByIds(couponIds, CouponEventTypeEnum.DELETED.name(), EMPTY_PAYLOAD);
+        }
+    }
+
+    // count is the number of uses consumed; multi-use coupons report them per reconcile, and a negative
+    // count gives back a use reported earlier
+    public void redeemed(UUID couponId, int count) {
+        if (enabled) {
+            repository.appendById(couponId, CouponEventTypeEnum.REDEEMED.name(), redeemedPayload(count));
+        }
+    }
+
+    public void redeemedByCode(String code) {
+        if (enabled) {
+            repository.appendByLiveCode(code, CouponEventTypeEnum.REDEEMED.name(), redeemedPayload(1));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Payloads are shared with ReactiveCouponService, which appends the same rows over R2DBC
+    public String createdPayload(CouponResponse coupon) {
+        try {
+            return objectMapper.writeValueAsString(coupon);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Coupon event is not serializable", ex);
+        }
+    }
+
+    public static String redeemedPayload(int count) {
+        return "{\"count\":" + count + "}";
+    }
+}
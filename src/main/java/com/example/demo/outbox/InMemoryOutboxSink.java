@@ -0,0 +1,29 @@
+package com.example.demo.outbox;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Bounded in-process queue for consumers living in the same JVM. A batch that does not fit is refused
+// whole, so it stays in the outbox instead of being delivered in part.
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<CouponEvent> queue;
+
+    public InMemoryOutboxSink(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    // The relay is the only producer, so the capacity check cannot be raced by another publish
+    @Override
+    public synchronized void publish(List<CouponEvent> events) {
+        if (queue.remainingCapacity() < events.size()) {
+            throw new IllegalStateException("Outbox queue is full");
+        }
+        queue.addAll(events);
+    }
+
+    public BlockingQueue<CouponEvent> queue() {
+        return queue;
+    }
+}
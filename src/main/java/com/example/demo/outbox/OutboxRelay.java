@@ -0,0 +1,87 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entities.CouponOutboxEntity;
+import com.example.demo.repository.CouponOutboxRepository;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Moves outbox rows to the sink oldest first: read a batch, publish it, then delete it. Delivery is
+// at-least-once (a crash after publish repeats the batch) and a failed batch blocks the ones behind it,
+// which keeps the per-coupon order. Off unless coupon.outbox.relay.enabled=true, to be set on one node only.
+@Component
+@ConditionalOnProperty(prefix = "coupon.outbox", name = {"enabled", "relay.enabled"}, havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final CouponOutboxRepository repository;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(CouponOutboxRepository repository,
+                       OutboxSink sink,
+                       MeterRegistry registry,
+                       @Value("${coupon.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${coupon.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.repository = repository;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.published = Counter.builder("coupon.outbox.published").register(registry);
+        this.failures = Counter.builder("coupon.outbox.failures").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.outbox.relay.interval-ms:200}")
+    public void run() {
+        relay();
+    }
+
+    // No cursor is kept: a row committed late with a lower id than the last published one (another
+    // coupon's event) is still the oldest row on the next pass. Synchronized so a manual call never
+    // overlaps the scheduled one.
+    public synchronized int relay() {
+        int relayed = 0;
+
+        for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+            List<CouponOutboxEntity> rows = ReadWriteRoutingDataSource.onPrimary(
+                    () -> repository.findOldest(PageRequest.of(0, batchSize)));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            try {
+                sink.publish(rows.stream().map(CouponEvent::of).toList());
+            } catch (RuntimeException ex) {
+                failures.increment();
+                log.warn("Outbox sink refused {} coupon events, retrying on the next run: {}", rows.size(), ex.toString());
+                break;
+            }
+
+            repository.deleteByIds(rows.stream().map(CouponOutboxEntity::getId).toList());
+            published.increment(rows.size());
+            relayed += rows.size();
+
+            if (rows.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (relayed > 0) {
+            log.debug("Relayed {} coupon events", relayed);
+        }
+        return relayed;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.outbox;
+
+import java.util.List;
+
+// Destination of the relayed events. Returning acknowledges the whole batch; throwing leaves it in the
+// outbox and the same events, in the same order, are offered again on the next relay pass.
+public interface OutboxSink {
+
+    void publish(List<CouponEvent> events);
+}
@@ -0,0 +1,180 @@
+package com.example.demo.quota;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Redeems multi-use coupons from quota slices claimed on the ledger. The total can never be exceeded,
+// since a node only spends uses it was granted. Spent uses are flushed periodically. Slices left idle
+// go back to the ledger, so other nodes can use the tail of a nearly exhausted coupon.
+@Component
+public class CouponQuotaManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponQuotaManager.class);
+
+    private final QuotaLedger ledger;
+    private final int sliceSize;
+    private final int stripes;
+    private final int idleRounds;
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+
+    public CouponQuotaManager(QuotaLedger ledger,
+                              @Value("${coupon.quota.slice-size:256}") int sliceSize,
+                              @Value("${coupon.quota.stripes:0}") int stripes,
+                              @Value("${coupon.quota.idle-rounds:30}") int idleRounds) {
+        this.ledger = ledger;
+        this.sliceSize = sliceSize;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        this.idleRounds = idleRounds;
+    }
+
+    public boolean tryAcquire(UUID couponId) {
+        while (true) {
+            Slot slot = slots.computeIfAbsent(couponId, id -> new Slot(stripes));
+            if (slot.quota.tryAcquire()) {
+                slot.used.increment();
+                return true;
+            }
+
+            Refill refill = refill(couponId, slot);
+            if (refill == Refill.EXHAUSTED) {
+                return false;
+            }
+            // GRANTED: try the new units; RETIRED: the slot was handed back meanwhile, start over on a fresh one
+        }
+    }
+
+    // Gives back a use acquired for a redemption that failed afterwards
+    public void release(UUID couponId) {
+        Slot slot = slots.get(couponId);
+        if (slot != null) {
+            slot.lock.lock();
+            try {
+                if (!slot.retired) {
+                    slot.used.decrement();
+                    slot.quota.release();
+                    return;
+                }
+            } finally {
+                slot.lock.unlock();
+            }
+        }
+        ledger.recordRedemptions(couponId, -1);
+        ledger.release(couponId, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.quota.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        for (Map.Entry<UUID, Slot> entry : slots.entrySet()) {
+            UUID couponId = entry.getKey();
+            Slot slot = entry.getValue();
+
+            long used = slot.used.sumThenReset();
+            if (used != 0) {
+                flush(couponId, slot, used);
+                slot.idleRounds = 0;
+            } else if (++slot.idleRounds >= idleRounds) {
+                retire(couponId, slot);
+                continue;
+            }
+            // Uses released by other nodes become claimable again
+            slot.exhausted = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        slots.forEach(this::retire);
+    }
+
+    private Refill refill(UUID couponId, Slot slot) {
+        slot.lock.lock();
+        try {
+            if (slot.retired) {
+                return Refill.RETIRED;
+            }
+            if (slot.quota.available() > 0) {
+                return Refill.GRANTED;
+            }
+            // Without this every redemption of a sold-out code would hit the ledger until the next reconcile
+            if (slot.exhausted) {
+                return Refill.EXHAUSTED;
+            }
+
+            int granted = ledger.claim(couponId, sliceSize);
+            if (granted == 0) {
+                slot.exhausted = true;
+                return Refill.EXHAUSTED;
+            }
+            slot.quota.add(granted);
+            return Refill.GRANTED;
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private void flush(UUID couponId, Slot slot, long used) {
+        try {
+            ledger.recordRedemptions(couponId, Math.toIntExact(used));
+        } catch (RuntimeException ex) {
+            slot.used.add(used);
+            log.warn("Could not reconcile {} redemptions of coupon {}, retrying next round", used, couponId, ex);
+        }
+    }
+
+    // Uses still in the slot go back to the ledger. A unit acquired in the same instant is still counted,
+    // only its redemption count may land one round late or be lost, never the allocation.
+    private void retire(UUID couponId, Slot slot) {
+        slot.lock.lock();
+        try {
+            slot.retired = true;
+            slots.remove(couponId, slot);
+
+            long leftover = slot.quota.drain();
+            long used = slot.used.sumThenReset();
+            if (used != 0) {
+                ledger.recordRedemptions(couponId, Math.toIntExact(used));
+            }
+            if (leftover > 0) {
+                ledger.release(couponId, Math.toIntExact(leftover));
+            }
+        } catch (RuntimeException ex) {
+            // Unreleased uses are lost for every node; the total is still never exceeded
+            log.warn("Could not hand back the quota of coupon {}", couponId, ex);
+        } finally {
+            slot.lock.unlock();
+        }
+    }
+
+    private enum Refill {
+        GRANTED,
+        EXHAUSTED,
+        RETIRED
+    }
+
+    private static final class Slot {
+
+        final StripedQuota quota;
+        final LongAdder used = new LongAdder();
+        final ReentrantLock lock = new ReentrantLock();
+
+        // Guarded by lock
+        boolean retired;
+        volatile boolean exhausted;
+        // Reconcile thread only
+        int idleRounds;
+
+        Slot(int stripes) {
+            this.quota = new StripedQuota(stripes);
+        }
+    }
+}
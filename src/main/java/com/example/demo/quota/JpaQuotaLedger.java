@@ -0,0 +1,55 @@
+package com.example.demo.quota;
+
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.outbox.CouponOutbox;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Each call is a single conditional UPDATE on the coupon row, once per slice instead of once per redemption
+@Component
+public class JpaQuotaLedger implements QuotaLedger {
+
+    private final CouponRepository repository;
+    private final CouponOutbox outbox;
+
+    public JpaQuotaLedger(CouponRepository repository, CouponOutbox outbox) {
+        this.repository = repository;
+        this.outbox = outbox;
+    }
+
+    @Override
+    public int claim(UUID couponId, int units) {
+        while (units > 0) {
+            Instant now = Instant.now();
+            if (repository.claimUses(couponId, units, CouponStatusEnum.ACTIVE, now) > 0) {
+                return units;
+            }
+
+            // Less than a full slice left (or another node got there first): retry with what remains
+            int unallocated = ReadWriteRoutingDataSource.onPrimary(
+                    () -> repository.findUnallocatedUses(couponId, CouponStatusEnum.ACTIVE, now)).orElse(0);
+            units = Math.min(units, unallocated);
+        }
+        return 0;
+    }
+
+    @Override
+    public void release(UUID couponId, int units) {
+        repository.releaseUses(couponId, units);
+    }
+
+    // One REDEEMED event per flush carrying the count, in the transaction of the counter update
+    @Override
+    public void recordRedemptions(UUID couponId, int count) {
+        outbox.inTransaction(() -> {
+            if (repository.addRedemptions(couponId, count) > 0) {
+                outbox.redeemed(couponId, count);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.quota;
+
+import java.util.UUID;
+
+// Shared source of truth for multi-use coupons: how many uses were handed out and how many were spent
+public interface QuotaLedger {
+
+    // Grants up to `units` of the uses still unallocated; 0 when none are left or the coupon is not redeemable
+    int claim(UUID couponId, int units);
+
+    void release(UUID couponId, int units);
+
+    // Negative counts correct redemptions that were rolled back after being flushed
+    void recordRedemptions(UUID couponId, int count);
+}
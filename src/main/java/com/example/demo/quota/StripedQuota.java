@@ -0,0 +1,77 @@
+package com.example.demo.quota;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Remaining uses of the slices a node holds for one coupon, split over stripes 128 bytes apart so
+// concurrent redemptions CAS different cache lines instead of one hot counter
+final class StripedQuota {
+
+    // 16 longs between stripes keep each one on its own cache line pair
+    private static final int PAD = 16;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+    private final int mask;
+
+    StripedQuota(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = size;
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PAD);
+    }
+
+    // Starts at the caller's stripe and only scans the others when it is empty
+    boolean tryAcquire() {
+        int start = home();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) & mask) * PAD;
+            long current;
+            while ((current = cells.get(index)) > 0) {
+                if (cells.compareAndSet(index, current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void add(long units) {
+        long share = units / stripes;
+        long rest = units % stripes;
+        for (int i = 0; i < stripes; i++) {
+            long amount = share + (i < rest ? 1 : 0);
+            if (amount > 0) {
+                cells.addAndGet(i * PAD, amount);
+            }
+        }
+    }
+
+    void release() {
+        cells.incrementAndGet(home() * PAD);
+    }
+
+    // Takes every remaining unit out; a unit is either drained here or acquired, never both
+    long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PAD, 0);
+        }
+        return drained;
+    }
+
+    long available() {
+        long available = 0;
+        for (int i = 0; i < stripes; i++) {
+            available += cells.get(i * PAD);
+        }
+        return available;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+}
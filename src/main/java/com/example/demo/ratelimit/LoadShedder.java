@@ -0,0 +1,68 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Watches how long requests wait for a Hikari connection. sample() turns the hikaricp.connections.acquire
+// timer into the average wait of the last interval; requests only read the resulting flag.
+public class LoadShedder {
+
+    static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+    static final String PENDING_GAUGE = "hikaricp.connections.pending";
+
+    private final MeterRegistry registry;
+    private final long thresholdNanos;
+
+    private long lastCount;
+    private double lastTotalNanos;
+    private volatile boolean overloaded;
+    private volatile long recentWaitNanos;
+
+    public LoadShedder(MeterRegistry registry, Duration threshold) {
+        this.registry = registry;
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    public Duration recentWait() {
+        return Duration.ofNanos(recentWaitNanos);
+    }
+
+    // Called from a single scheduler thread
+    public synchronized void sample() {
+        // One timer per pool (primary and replica when read routing is on); the waits are summed
+        Collection<Timer> acquires = registry.find(ACQUIRE_TIMER).timers();
+        if (acquires.isEmpty()) {
+            return;
+        }
+
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer acquire : acquires) {
+            count += acquire.count();
+            totalNanos += acquire.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long acquired = count - lastCount;
+        double waited = totalNanos - lastTotalNanos;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+
+        // Nothing acquired in the interval: still overloaded only while threads are stuck waiting for a
+        // connection; otherwise let traffic back in and judge again on the next sample
+        if (acquired == 0) {
+            overloaded = registry.find(PENDING_GAUGE).gauges().stream().anyMatch(pending -> pending.value() > 0);
+            recentWaitNanos = 0;
+            return;
+        }
+
+        recentWaitNanos = (long) (waited / acquired);
+        overloaded = recentWaitNanos > thresholdNanos;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Runs before CouponController. It first sheds load while the DB pool is saturated, then applies the
+// per-client token bucket. Either limiter may be null when it is disabled.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final Set<String> apiKeys;
+    private final long overloadRetryAfterSeconds;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, LoadShedder loadShedder, Set<String> apiKeys,
+                           long overloadRetryAfterSeconds, MeterRegistry registry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
+        this.rateLimited = Counter.builder("coupon.requests.rejected").tag("reason", "rate_limited").register(registry);
+        this.overloaded = Counter.builder("coupon.requests.rejected").tag("reason", "overloaded").register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (loadShedder != null && loadShedder.isOverloaded()) {
+            overloaded.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfterSeconds, "Service overloaded, retry later");
+            return;
+        }
+
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(clientOf(request));
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Rate limit exceeded");
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    // Only a configured API key gets its own bucket. Any other key is ignored and the caller is limited by
+    // remote address, so rotating random keys neither resets the limit nor floods the bucket map.
+    String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token bucket per client in its GCRA form: the whole bucket is one AtomicLong holding the theoretical
+// arrival time, updated with a CAS. There is no lock, no refill thread, and clients never share a counter.
+public class TokenBucketRateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, long maxClients, Duration idleTtl) {
+        this(permitsPerSecond, burst, maxClients, idleTtl, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, long maxClients, Duration idleTtl, LongSupplier nanoTime) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.nanoTime = nanoTime;
+        // An idle client's bucket is full again after burstNanos, so dropping it after idleTtl loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTtl.compareTo(Duration.ofNanos(burstNanos)) > 0 ? idleTtl : Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    // 0 when a permit was taken, otherwise the nanoseconds until the next one is available
+    public long tryAcquire(String client) {
+        AtomicLong theoreticalArrival = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoTime.getAsLong();
+
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            long allowedAt = next - burstNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import java.util.UUID;
+
+// Id and code of a coupon a delete is about to change; the code is what it releases
+public record CouponCodeRow(UUID id, String code) {
+}
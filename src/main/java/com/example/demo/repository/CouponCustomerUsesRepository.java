@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.entities.CouponCustomerUsesEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface CouponCustomerUsesRepository
+        extends JpaRepository<CouponCustomerUsesEntity, CouponCustomerUsesEntity.Key> {
+
+    // 0 rows: no row yet for this customer, or the limit is reached
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE CouponCustomerUsesEntity u SET u.uses = u.uses + 1
+            WHERE u.couponId = :couponId
+              AND u.customerId = :customerId
+              AND u.uses < :limit
+            """)
+    int incrementUses(@Param("couponId") UUID couponId, @Param("customerId") String customerId, @Param("limit") int limit);
+
+    // 0 rows when the row already exists; two first uses racing end in a duplicate key on the loser
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO coupon_customer_uses (coupon_id, customer_id, uses)
+            SELECT CAST(:couponId AS UUID), CAST(:customerId AS VARCHAR(64)), 1
+            WHERE NOT EXISTS (SELECT 1 FROM coupon_customer_uses
+                              WHERE coupon_id = :couponId AND customer_id = :customerId)
+            """, nativeQuery = true)
+    int insertFirstUse(@Param("couponId") UUID couponId, @Param("customerId") String customerId);
+}
@@ -0,0 +1,63 @@
+package com.example.demo.repository;
+
+import com.example.demo.entities.CouponOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CouponOutboxRepository extends JpaRepository<CouponOutboxEntity, Long>, CouponOutboxRepositoryCustom {
+
+    // The appends only make sense inside the transaction of the change they describe, hence MANDATORY.
+    // Coupon id and code are copied from the row in the same statement, no read round trip.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO coupon_outbox (coupon_id, code, event_type, payload, created_at)
+            SELECT c.id, c.code, CAST(:type AS VARCHAR(16)), CAST(:payload AS VARCHAR(8192)), CURRENT_TIMESTAMP
+            FROM coupons c
+            WHERE c.id = :id
+            """, nativeQuery = true)
+    int appendById(@Param("id") UUID id, @Param("type") String type, @Param("payload") String payload);
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO coupon_outbox (coupon_id, code, event_type, payload, created_at)
+            SELECT c.id, c.code, CAST(:type AS VARCHAR(16)), CAST(:payload AS VARCHAR(8192)), CURRENT_TIMESTAMP
+            FROM coupons c
+            WHERE c.live_code = :code
+            """, nativeQuery = true)
+    int appendByLiveCode(@Param("code") String code, @Param("type") String type, @Param("payload") String payload);
+
+    // After a bulk soft delete, with only the ids it changed (CouponRepository.lockLive)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = """
+            INSERT INTO coupon_outbox (coupon_id, code, event_type, payload, created_at)
+            SELECT c.id, c.code, CAST(:type AS VARCHAR(16)), CAST(:payload AS VARCHAR(8192)), CURRENT_TIMESTAMP
+            FROM coupons c
+            WHERE c.id IN :ids
+              AND c.status = 'DELETED'
+            ORDER BY c.id
+            """, nativeQuery = true)
+    int appendDeletedByIds(@Param("ids") Collection<UUID> ids, @Param("type") String type, @Param("payload") String payload);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT e FROM CouponOutboxEntity e ORDER BY e.id")
+    List<CouponOutboxEntity> findOldest(Pageable batch);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CouponOutboxEntity e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+public interface CouponOutboxRepositoryCustom {
+
+    // Events of many coupons of the same type in one JDBC batch, inside the caller's transaction
+    void appendAll(String type, List<OutboxRow> rows);
+}
@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Native @Modifying queries run one statement per call; JdbcTemplate.batchUpdate sends the whole list as
+// a single JDBC batch on the connection of the surrounding JPA transaction
+public class CouponOutboxRepositoryCustomImpl implements CouponOutboxRepositoryCustom {
+
+    private static final String APPEND = """
+            INSERT INTO coupon_outbox (coupon_id, code, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponOutboxRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String type, List<OutboxRow> rows) {
+        jdbcTemplate.batchUpdate(APPEND, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row.couponId());
+            ps.setString(2, row.code());
+            ps.setString(3, type);
+            ps.setString(4, row.payload());
+        });
+    }
+}
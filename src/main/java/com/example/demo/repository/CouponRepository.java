@@ -2,11 +2,156 @@ package com.example.demo.repository;
 
 
 import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CouponRepository extends JpaRepository<CouponEntity, UUID> {
+public interface CouponRepository extends JpaRepository<CouponEntity, UUID>, CouponRepositoryCustom {
+
+    // Single conditional UPDATE: the row is only locked for the duration of this statement.
+    // Multi-use coupons never match; they are redeemed from quota slices (CouponQuotaManager)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.redeemed = true
+            WHERE c.id = :id
+              AND c.maxUses IS NULL
+              AND c.status = :status
+              AND c.published = true
+              AND c.redeemed = false
+              AND c.expirationDate > :now
+            """)
+    int redeemById(@Param("id") UUID id, @Param("status") CouponStatusEnum status, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.redeemed = true
+            WHERE c.liveCode = :code
+              AND c.maxUses IS NULL
+              AND c.status = :status
+              AND c.published = true
+              AND c.redeemed = false
+              AND c.expirationDate > :now
+            """)
+    int redeemByCode(@Param("code") String code, @Param("status") CouponStatusEnum status, @Param("now") Instant now);
+
+    // Soft delete in one statement; 0 rows means the coupon is missing or already DELETED
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.status = :deleted, c.liveCode = null
+            WHERE c.id = :id
+              AND c.status <> :deleted
+            """)
+    int softDeleteById(@Param("id") UUID id, @Param("deleted") CouponStatusEnum deleted);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.status = :deleted, c.liveCode = null
+            WHERE c.id IN :ids
+              AND c.status <> :deleted
+            """)
+    int softDeleteByIds(@Param("ids") Collection<UUID> ids, @Param("deleted") CouponStatusEnum deleted);
+
+    // Read in the delete's own transaction, on the primary: the code a soft delete just released
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("SELECT c.code FROM CouponEntity c WHERE c.id = :id")
+    String findCodeById(@Param("id") UUID id);
+
+    // Served by the unique index on live_code. Declared query methods get no transaction from
+    // SimpleJpaRepository, so every read below spells out read-only: the routing sends it to the replica
+    // (callers that need fresh data wrap it in onPrimary) and the prod profile relies on every access
+    // running in a transaction
+    @Transactional(readOnly = true)
+    Optional<CouponEntity> findByLiveCode(String liveCode);
+
+    // One IN query over the same index, for cart evaluation and batch lookup
+    @Transactional(readOnly = true)
+    List<CouponEntity> findByLiveCodeIn(Collection<String> liveCodes);
+
+    // Seeks on IDX_COUPONS_STATUS_EXPIRATION; the Pageable only bounds the chunk, no count query is issued
+    @Transactional(readOnly = true)
+    @Query("SELECT c.id FROM CouponEntity c WHERE c.status = :status AND c.expirationDate <= :now ORDER BY c.expirationDate")
+    List<UUID> findExpiredIds(@Param("status") CouponStatusEnum status, @Param("now") Instant now, Pageable chunk);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.status = :newStatus
+            WHERE c.id IN :ids
+              AND c.status = :status
+              AND c.expirationDate <= :now
+            """)
+    int updateExpiredStatus(@Param("ids") Collection<UUID> ids,
+                            @Param("status") CouponStatusEnum status,
+                            @Param("newStatus") CouponStatusEnum newStatus,
+                            @Param("now") Instant now);
+
+    // Hands `units` more uses of a multi-use coupon to one node; 0 rows when fewer than `units` are left
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.allocatedUses = c.allocatedUses + :units
+            WHERE c.id = :id
+              AND c.maxUses IS NOT NULL
+              AND c.allocatedUses + :units <= c.maxUses
+              AND c.status = :status
+              AND c.published = true
+              AND c.expirationDate > :now
+            """)
+    int claimUses(@Param("id") UUID id, @Param("units") int units,
+                  @Param("status") CouponStatusEnum status, @Param("now") Instant now);
+
+    @Transactional(readOnly = true)
+    @Query("""
+            SELECT c.maxUses - c.allocatedUses FROM CouponEntity c
+            WHERE c.id = :id
+              AND c.maxUses IS NOT NULL
+              AND c.status = :status
+              AND c.published = true
+              AND c.expirationDate > :now
+            """)
+    Optional<Integer> findUnallocatedUses(@Param("id") UUID id,
+                                          @Param("status") CouponStatusEnum status, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c SET c.allocatedUses = c.allocatedUses - :units
+            WHERE c.id = :id
+              AND c.allocatedUses >= :units
+            """)
+    int releaseUses(@Param("id") UUID id, @Param("units") int units);
+
+    // redeemed turns true once every use is consumed, so listings can filter exhausted coupons
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE CouponEntity c
+            SET c.redemptionCount = c.redemptionCount + :count,
+                c.redeemed = CASE WHEN c.redemptionCount + :count >= c.maxUses THEN true ELSE false END
+            WHERE c.id = :id
+              AND c.maxUses IS NOT NULL
+            """)
+    int addRedemptions(@Param("id") UUID id, @Param("count") int count);
+
+    // A code the replica does not show yet fails the insert on the unique index and is drawn again
+    @Transactional(readOnly = true)
+    @Query("SELECT c.liveCode FROM CouponEntity c WHERE c.liveCode IN :codes")
+    List<String> findExistingLiveCodes(@Param("codes") Collection<String> codes);
 }
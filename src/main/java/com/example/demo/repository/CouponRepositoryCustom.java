@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.entities.CouponEntity;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface CouponRepositoryCustom {
+
+    // Keyset page: rows matching the filter with id > after, ordered by id
+    List<CouponEntity> findPage(CouponFilter filter, UUID after, int limit);
+
+    // Same keyset seek as findPage, selecting only the ids
+    List<UUID> findIds(CouponFilter filter, UUID after, int limit);
+
+    // Forward-only cursor over every matching row; must be consumed inside a transaction and closed
+    Stream<CouponEntity> streamAll(CouponFilter filter, int fetchSize);
+
+    // Locks the rows of a bulk delete chunk that are still live, in id order; the soft delete that follows
+    // in the same transaction changes exactly these rows
+    List<CouponCodeRow> lockLive(Collection<UUID> ids);
+
+    // Every coupon holding a live code, or only those with createdAt >= since (database insert time);
+    // same cursor rules as streamAll
+    Stream<LiveCodeRow> streamLiveCodes(Instant since, int fetchSize);
+}
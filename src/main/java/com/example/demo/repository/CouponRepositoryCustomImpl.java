@@ -0,0 +1,145 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class CouponRepositoryCustomImpl implements CouponRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CouponEntity> findPage(CouponFilter filter, UUID after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CouponEntity> query = cb.createQuery(CouponEntity.class);
+        Root<CouponEntity> coupon = query.from(CouponEntity.class);
+
+        List<Predicate> predicates = predicates(cb, coupon, filter);
+        if (after != null) {
+            predicates.add(cb.greaterThan(coupon.<UUID>get("id"), after));
+        }
+
+        query.select(coupon)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(coupon.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findIds(CouponFilter filter, UUID after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<CouponEntity> coupon = query.from(CouponEntity.class);
+
+        List<Predicate> predicates = predicates(cb, coupon, filter);
+        if (after != null) {
+            predicates.add(cb.greaterThan(coupon.<UUID>get("id"), after));
+        }
+
+        query.select(coupon.<UUID>get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(coupon.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<CouponEntity> streamAll(CouponFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CouponEntity> query = cb.createQuery(CouponEntity.class);
+        Root<CouponEntity> coupon = query.from(CouponEntity.class);
+
+        query.select(coupon)
+                .where(predicates(cb, coupon, filter).toArray(Predicate[]::new))
+                .orderBy(cb.asc(coupon.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    @SuppressWarnings("unchecked")
+    public List<CouponCodeRow> lockLive(Collection<UUID> ids) {
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        SELECT c.id, c.code FROM coupons c
+                        WHERE c.id IN :ids
+                          AND c.status <> 'DELETED'
+                        ORDER BY c.id
+                        FOR UPDATE
+                        """)
+                .setParameter("ids", ids)
+                .getResultList();
+        return rows.stream().map(row -> new CouponCodeRow((UUID) row[0], (String) row[1])).toList();
+    }
+
+    @Override
+    public Stream<LiveCodeRow> streamLiveCodes(Instant since, int fetchSize) {
+        String jpql = "SELECT new com.example.demo.repository.LiveCodeRow(c.liveCode, c.id, c.status, c.createdAt) "
+                + "FROM CouponEntity c WHERE c.liveCode IS NOT NULL"
+                + (since != null ? " AND c.createdAt >= :since" : "");
+
+        TypedQuery<LiveCodeRow> query = entityManager.createQuery(jpql, LiveCodeRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (since != null) {
+            query.setParameter("since", since);
+        }
+        return query.getResultStream();
+    }
+
+    static List<Predicate> predicates(CriteriaBuilder cb, Root<CouponEntity> coupon, CouponFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(coupon.get("status"), filter.getStatus()));
+        } else {
+            predicates.add(cb.notEqual(coupon.get("status"), CouponStatusEnum.DELETED));
+        }
+
+        if (filter.getPublished() != null) {
+            predicates.add(cb.equal(coupon.get("published"), filter.getPublished()));
+        }
+
+        if (filter.getRedeemed() != null) {
+            predicates.add(cb.equal(coupon.get("redeemed"), filter.getRedeemed()));
+        }
+
+        if (filter.getExpiresAfter() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(coupon.<Instant>get("expirationDate"), filter.getExpiresAfter()));
+        }
+
+        if (filter.getExpiresBefore() != null) {
+            predicates.add(cb.lessThan(coupon.<Instant>get("expirationDate"), filter.getExpiresBefore()));
+        }
+
+        return predicates;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.repository;
+
+import com.example.demo.entities.IdempotencyRecordEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    // Plain INSERT (save() would merge): fails with a duplicate key when another request already holds the key
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, fingerprint, response_status, created_at)
+            VALUES (:key, :fingerprint, 0, :createdAt)
+            """, nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecordEntity r SET r.responseStatus = :status, r.responseBody = :body WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecordEntity r WHERE r.key = :key AND r.responseStatus = 0")
+    int release(@Param("key") String key);
+
+    // Drops a claim that expired or whose owner never finished, so the key can be claimed again
+    @Transactional
+    @Modifying
+    @Query("""
+            DELETE FROM IdempotencyRecordEntity r
+            WHERE r.key = :key AND (r.createdAt < :expiredBefore OR (r.responseStatus = 0 AND r.createdAt < :abandonedBefore))
+            """)
+    int deleteStale(@Param("key") String key, @Param("expiredBefore") Instant expiredBefore,
+                    @Param("abandonedBefore") Instant abandonedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecordEntity r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
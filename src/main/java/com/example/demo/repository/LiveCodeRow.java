@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.enums.CouponStatusEnum;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Projection read by the code index: only what it keeps per coupon, no entity is hydrated. createdAt is the
+// database insert time the refresh watermark is taken from.
+public record LiveCodeRow(String code, UUID id, CouponStatusEnum status, Instant createdAt) {
+}
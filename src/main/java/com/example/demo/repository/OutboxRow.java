@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import java.util.UUID;
+
+// One event to append, with the coupon's id and code already at hand
+public record OutboxRow(UUID couponId, String code, String payload) {
+}
@@ -0,0 +1,40 @@
+package com.example.demo.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// Read-only transactions go to the replica, everything else to the primary. Must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager opens the connection before the read-only
+// flag is bound, so the real connection has to be fetched lazily, on the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    // Runs the call with read-only transactions pinned to the primary, for reads that must see a recent write
+    public static <T> T onPrimary(Supplier<T> call) {
+        if (FORCE_PRIMARY.get() != null) {
+            return call.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && FORCE_PRIMARY.get() == null) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
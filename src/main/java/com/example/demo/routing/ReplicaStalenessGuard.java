@@ -0,0 +1,48 @@
+package com.example.demo.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+// Read-your-writes over an asynchronous replica: a coupon written on this node in the last `staleness`
+// is read from the primary, so callers never see it as it was before their own write
+@Component
+public class ReplicaStalenessGuard {
+
+    // Coupon ids and codes; null when replica routing is off
+    private final Cache<Object, Boolean> recentWrites;
+
+    public ReplicaStalenessGuard(@Value("${coupon.datasource.replica.enabled:false}") boolean replicaEnabled,
+                                 @Value("${coupon.datasource.replica.staleness:2s}") Duration staleness,
+                                 @Value("${coupon.datasource.replica.tracked-writes:100000}") long trackedWrites) {
+        this.recentWrites = replicaEnabled && !staleness.isZero()
+                ? Caffeine.newBuilder().maximumSize(trackedWrites).expireAfterWrite(staleness).build()
+                : null;
+    }
+
+    public void markWritten(Object key) {
+        if (recentWrites != null && key != null) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    public <T> T read(Object key, Supplier<T> call) {
+        if (recentWrites != null && recentWrites.getIfPresent(key) != null) {
+            return ReadWriteRoutingDataSource.onPrimary(call);
+        }
+        return call.get();
+    }
+
+    // For IN queries: one recently written key sends the whole chunk to the primary
+    public <T> T readAll(Collection<?> keys, Supplier<T> call) {
+        if (recentWrites != null && keys.stream().anyMatch(key -> recentWrites.getIfPresent(key) != null)) {
+            return ReadWriteRoutingDataSource.onPrimary(call);
+        }
+        return call.get();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.scheduler;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.repository.CouponRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "coupon.expiration-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponExpirationSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponExpirationSweeper.class);
+
+    private final CouponRepository repository;
+    private final CouponCache cache;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+
+    private volatile SweepResult lastRun;
+
+    public CouponExpirationSweeper(CouponRepository repository,
+                                   CouponCache cache,
+                                   @Value("${coupon.expiration-sweeper.chunk-size:1000}") int chunkSize,
+                                   @Value("${coupon.expiration-sweeper.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.repository = repository;
+        this.cache = cache;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${coupon.expiration-sweeper.initial-delay-ms:30000}",
+            fixedDelayString = "${coupon.expiration-sweeper.interval-ms:60000}")
+    public void run() {
+        sweep();
+    }
+
+    // Each chunk is one short SELECT of ids plus one UPDATE ... WHERE id IN, each in its own transaction,
+    // so locks are held only for chunkSize rows; whatever is left over is picked up by the next run
+    public SweepResult sweep() {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        int processed = 0;
+        int chunks = 0;
+
+        while (chunks < maxChunksPerRun) {
+            List<UUID> ids = repository.findExpiredIds(CouponStatusEnum.ACTIVE, startedAt, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            processed += repository.updateExpiredStatus(ids, CouponStatusEnum.ACTIVE, CouponStatusEnum.INACTIVE, startedAt);
+            ids.forEach(cache::evict);
+            chunks++;
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        SweepResult result = new SweepResult(startedAt, processed, chunks, Duration.ofNanos(System.nanoTime() - start));
+        lastRun = result;
+
+        if (processed > 0) {
+            log.info("Expiration sweep moved {} coupons to INACTIVE in {} chunks ({} ms)",
+                    processed, chunks, result.getElapsed().toMillis());
+        } else {
+            log.debug("Expiration sweep found nothing to expire ({} ms)", result.getElapsed().toMillis());
+        }
+
+        return result;
+    }
+
+    public SweepResult getLastRun() {
+        return lastRun;
+    }
+}
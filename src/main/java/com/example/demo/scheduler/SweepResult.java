@@ -0,0 +1,35 @@
+package com.example.demo.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class SweepResult {
+
+    private final Instant startedAt;
+    private final int processed;
+    private final int chunks;
+    private final Duration elapsed;
+
+    public SweepResult(Instant startedAt, int processed, int chunks, Duration elapsed) {
+        this.startedAt = startedAt;
+        this.processed = processed;
+        this.chunks = chunks;
+        this.elapsed = elapsed;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+}
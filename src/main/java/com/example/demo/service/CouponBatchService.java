@@ -0,0 +1,388 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.BulkDeleteResponse;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponGenerateRequest;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.BatchItemStatusEnum;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CodeNotFoundException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.outbox.CouponOutbox;
+import com.example.demo.repository.CouponCodeRow;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class CouponBatchService {
+
+    // Consecutive chunks allowed to come back without a single free code before giving up
+    private static final int MAX_EMPTY_ROUNDS = 10;
+
+    private static final Logger log = LoggerFactory.getLogger(CouponBatchService.class);
+
+    public static final int MAX_BULK_DELETE_IDS = 10_000;
+
+    private final CouponService couponService;
+    private final CouponRepository repository;
+    private final CouponCache cache;
+    private final CouponCodeGenerator codeGenerator;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CouponCodeIndex codeIndex;
+    private final CouponOutbox outbox;
+    private final ReplicaStalenessGuard staleness;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final long maxGenerateCount;
+
+    public CouponBatchService(CouponService couponService,
+                              CouponRepository repository,
+                              CouponCache cache,
+                              CouponCodeGenerator codeGenerator,
+                              Validator validator,
+                              ObjectMapper objectMapper,
+                              CouponCodeIndex codeIndex,
+                              CouponOutbox outbox,
+                              ReplicaStalenessGuard staleness,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${coupon.batch.chunk-size:500}") int chunkSize,
+                              @Value("${coupon.generator.max-count:10000000}") long maxGenerateCount) {
+        this.couponService = couponService;
+        this.repository = repository;
+        this.cache = cache;
+        this.codeGenerator = codeGenerator;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.codeIndex = codeIndex;
+        this.outbox = outbox;
+        this.staleness = staleness;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxGenerateCount = maxGenerateCount;
+    }
+
+    // Accepts a JSON array or NDJSON and answers with one NDJSON line per item, in request order. Items are
+    // inserted in chunks of chunkSize and each window of results is written once its chunk commits, so
+    // memory stays at one chunk whatever the size of the batch.
+    public void createBatch(InputStream body, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<BatchItemResult> window = new ArrayList<>(chunkSize);
+        List<PendingItem> chunk = new ArrayList<>(chunkSize);
+        Set<String> chunkCodes = new HashSet<>();
+        long created = 0;
+        int index = 0;
+
+        try {
+            try (MappingIterator<CouponDTO> items = objectMapper.readerFor(CouponDTO.class).readValues(body)) {
+                for (; items.hasNextValue(); index++) {
+                    window.add(accept(index, items.nextValue(), window.size(), chunk, chunkCodes));
+                    if (window.size() == chunkSize) {
+                        created += writeWindow(chunk, window, writer);
+                        chunkCodes.clear();
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                // The items read before the malformed one are still inserted and reported
+                created += writeWindow(chunk, window, writer);
+                throw new BusinessException("Invalid batch payload at item " + index + ": " + ex.getOriginalMessage());
+            }
+            created += writeWindow(chunk, window, writer);
+        } catch (RuntimeException ex) {
+            log.warn("Coupon batch stopped after {} items, {} created", index, created, ex);
+            writeError(writer, ex, "coupon batch failed", created);
+        }
+    }
+
+    // The failed result of an item, or null once it is queued in chunk for the next insert
+    private BatchItemResult accept(int index, CouponDTO request, int slot, List<PendingItem> chunk, Set<String> chunkCodes) {
+        String error = request == null ? "item is required" : validate(request);
+        if (error != null) {
+            return BatchItemResult.failed(index, BatchItemStatusEnum.INVALID, error);
+        }
+
+        CouponEntity entity;
+        try {
+            entity = couponService.toNewEntity(request);
+        } catch (BusinessException | CodeNotFoundException ex) {
+            return BatchItemResult.failed(index, BatchItemStatusEnum.INVALID, ex.getMessage());
+        }
+
+        if (!chunkCodes.add(entity.getCode())) {
+            return BatchItemResult.failed(index, BatchItemStatusEnum.DUPLICATE, "Coupon code already in use");
+        }
+
+        chunk.add(new PendingItem(index, slot, request, entity));
+        return null;
+    }
+
+    // Inserts the queued chunk, then writes and drops the window; returns how many items were created
+    private int writeWindow(List<PendingItem> chunk, List<BatchItemResult> window, Writer writer) throws IOException {
+        flush(chunk, window);
+
+        int created = 0;
+        for (BatchItemResult result : window) {
+            if (result.getStatus() == BatchItemStatusEnum.CREATED) {
+                created++;
+            }
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush();
+        window.clear();
+        return created;
+    }
+
+    // One transaction per chunk; Hibernate groups the INSERTs into JDBC batches of hibernate.jdbc.batch_size
+    private void flush(List<PendingItem> chunk, List<BatchItemResult> window) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<CouponEntity> saved = insertAll(chunk.stream().map(PendingItem::entity).toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                PendingItem item = chunk.get(i);
+                window.set(item.slot(), BatchItemResult.created(item.index(), saved.get(i).getId(), saved.get(i).getCode()));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            if (!CouponService.isLiveCodeConflict(ex)) {
+                throw ex;
+            }
+            // A code already exists in COUPONS: only this chunk is retried row by row to find which one
+            for (PendingItem item : chunk) {
+                window.set(item.slot(), insertOne(item));
+            }
+        }
+
+        chunk.clear();
+    }
+
+    // Runs before the response starts streaming so invalid input still gets a 400
+    public void checkGeneration(CouponGenerateRequest request, long count, String prefix) {
+        codeGenerator.checkPrefix(prefix);
+
+        if (count < 1 || count > maxGenerateCount) {
+            throw new BusinessException("count must be between 1 and " + maxGenerateCount);
+        }
+
+        if (count > codeGenerator.keyspace(prefix) / 2) {
+            throw new BusinessException("prefix leaves too few free codes for count " + count);
+        }
+
+        couponService.toNewEntity(request.toCoupon(codeGenerator.next(prefix)));
+    }
+
+    // Draws one chunk of random codes at a time, drops the ones already taken with a single IN query
+    // and inserts the rest as one JDBC batch; only chunk-sized sets are ever held in memory
+    public void generate(CouponGenerateRequest request, long count, String prefix, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long created = 0;
+        int emptyRounds = 0;
+
+        try {
+            while (created < count) {
+                int size = (int) Math.min(chunkSize, count - created);
+
+                Set<String> candidates = new HashSet<>(size * 2);
+                while (candidates.size() < size) {
+                    candidates.add(codeGenerator.next(prefix));
+                }
+                candidates.removeAll(repository.findExistingLiveCodes(candidates));
+
+                List<CouponEntity> saved = reserve(request, candidates);
+                if (saved.isEmpty()) {
+                    if (++emptyRounds > MAX_EMPTY_ROUNDS) {
+                        throw new BusinessException("could not find free codes for prefix " + prefix);
+                    }
+                    continue;
+                }
+                emptyRounds = 0;
+
+                for (CouponEntity entity : saved) {
+                    writer.write("{\"id\":\"" + entity.getId() + "\",\"code\":\"" + entity.getCode() + "\"}\n");
+                }
+                writer.flush();
+                created += saved.size();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Coupon generation stopped after {} of {} coupons", created, count, ex);
+            writeError(writer, ex, "coupon generation failed", created);
+        }
+    }
+
+    // The status and the earlier lines are already on the wire: a last error line tells the client the
+    // run stopped short, and how many coupons it did create
+    private void writeError(Writer writer, RuntimeException ex, String fallback, long created) throws IOException {
+        String error = ex instanceof BusinessException ? ex.getMessage() : fallback;
+        writer.write(objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                .put("error", error)
+                .put("created", created)) + "\n");
+        writer.flush();
+    }
+
+    private List<CouponEntity> reserve(CouponGenerateRequest request, Set<String> codes) {
+        if (codes.isEmpty()) {
+            return List.of();
+        }
+
+        List<CouponEntity> entities = codes.stream()
+                .map(code -> couponService.toNewEntity(request.toCoupon(code)))
+                .toList();
+
+        try {
+            return insertAll(entities);
+        } catch (DataIntegrityViolationException ex) {
+            if (!CouponService.isLiveCodeConflict(ex)) {
+                throw ex;
+            }
+            // A concurrent writer took one of the codes after the IN check; the next chunk draws fresh codes
+            return List.of();
+        }
+    }
+
+    // Soft deletes by explicit ids or by filter, one UPDATE ... WHERE id IN per chunk
+    public BulkDeleteResponse bulkDelete(BulkDeleteRequest request) {
+        if (request.getIds() != null) {
+            if (request.getIds().size() > MAX_BULK_DELETE_IDS) {
+                throw new BusinessException("at most " + MAX_BULK_DELETE_IDS + " ids per request");
+            }
+
+            long deleted = 0;
+            List<UUID> ids = request.getIds();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                deleted += deleteChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            }
+            return new BulkDeleteResponse(deleted);
+        }
+
+        boolean all = Boolean.TRUE.equals(request.getAll());
+        if (request.getFilter() == null && !all) {
+            throw new BusinessException("ids or filter is required");
+        }
+        CouponFilter filter = request.getFilter() != null ? request.getFilter() : new CouponFilter();
+
+        // An empty filter would soft delete every live coupon: only done when asked for explicitly
+        if (filter.isEmpty() && !all) {
+            throw new BusinessException("filter must have at least one criterion; send \"all\": true to delete every coupon");
+        }
+
+        if (CouponStatusEnum.DELETED.equals(filter.getStatus())) {
+            return new BulkDeleteResponse(0);
+        }
+
+        // Keyset walk over the matching ids; rows deleted behind the cursor no longer match the filter
+        long deleted = 0;
+        UUID cursor = null;
+        List<UUID> ids;
+        do {
+            UUID after = cursor;
+            ids = ReadWriteRoutingDataSource.onPrimary(() -> repository.findIds(filter, after, chunkSize));
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk(ids);
+                cursor = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+
+        return new BulkDeleteResponse(deleted);
+    }
+
+    // The still-live rows are locked and read first, in the delete's transaction: only they change, only
+    // they get a DELETED event (coupons deleted before this chunk must not get a second one), and their
+    // codes are the ones released
+    private int deleteChunk(List<UUID> ids) {
+        List<CouponCodeRow> live = transaction.execute(status -> {
+            List<CouponCodeRow> rows = repository.lockLive(ids);
+            if (!rows.isEmpty()) {
+                List<UUID> liveIds = rows.stream().map(CouponCodeRow::id).toList();
+                repository.softDeleteByIds(liveIds, CouponStatusEnum.DELETED);
+                outbox.deletedAll(liveIds);
+            }
+            return rows;
+        });
+        for (CouponCodeRow row : live) {
+            staleness.markWritten(row.id());
+            staleness.markWritten(row.code());
+            codeIndex.markDeleted(row.code());
+        }
+        ids.forEach(cache::markDeleted);
+        return live.size();
+    }
+
+    // The CREATED events of a chunk commit together with its rows, appended as one JDBC batch
+    private List<CouponEntity> insertAll(List<CouponEntity> entities) {
+        List<CouponEntity> saved = outbox.inTransaction(() -> {
+            List<CouponEntity> rows = repository.saveAllAndFlush(entities);
+            outbox.createdAll(rows.stream().map(couponService::toResponse).toList());
+            return rows;
+        });
+        saved.forEach(this::index);
+        return saved;
+    }
+
+    private void index(CouponEntity entity) {
+        codeIndex.add(entity.getId(), entity.getCode(), entity.getStatus());
+    }
+
+    private BatchItemResult insertOne(PendingItem item) {
+        try {
+            CouponEntity saved = insertAll(List.of(couponService.toNewEntity(item.request()))).get(0);
+            return BatchItemResult.created(item.index(), saved.getId(), saved.getCode());
+        } catch (DataIntegrityViolationException ex) {
+            if (!CouponService.isLiveCodeConflict(ex)) {
+                throw ex;
+            }
+            return BatchItemResult.failed(item.index(), BatchItemStatusEnum.DUPLICATE, "Coupon code already in use");
+        } catch (BusinessException ex) {
+            return BatchItemResult.failed(item.index(), BatchItemStatusEnum.INVALID, ex.getMessage());
+        }
+    }
+
+    private String validate(CouponDTO request) {
+        Set<ConstraintViolation<CouponDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // slot is the item's position in the current window of results
+    private record PendingItem(int index, int slot, CouponDTO request, CouponEntity entity) {
+    }
+}
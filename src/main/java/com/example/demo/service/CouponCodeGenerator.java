@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.BusinessException;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+@Component
+public class CouponCodeGenerator {
+
+    public static final int CODE_LENGTH = CouponCodeSanitizer.CODE_LENGTH;
+
+    // Same alphabet kept by sanitizeCode: [A-Za-z0-9]
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+
+    public String next(String prefix) {
+        char[] code = new char[CODE_LENGTH];
+        prefix.getChars(0, prefix.length(), code, 0);
+        for (int i = prefix.length(); i < CODE_LENGTH; i++) {
+            code[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(code);
+    }
+
+    public void checkPrefix(String prefix) {
+        if (prefix == null || prefix.length() >= CODE_LENGTH) {
+            throw new BusinessException("prefix must have up to " + (CODE_LENGTH - 1) + " alphanumeric characters");
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (!CouponCodeSanitizer.isAlphanumeric(prefix.charAt(i))) {
+                throw new BusinessException("prefix must have up to " + (CODE_LENGTH - 1) + " alphanumeric characters");
+            }
+        }
+    }
+
+    // Number of distinct codes available after the prefix
+    public long keyspace(String prefix) {
+        long size = 1;
+        for (int i = prefix.length(); i < CODE_LENGTH; i++) {
+            size *= ALPHABET.length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CodeNotFoundException;
+
+// Same result as rawCode.replaceAll("[^A-Za-z0-9]", "") truncated to 6 characters, in a single pass
+// that stops at the sixth alphanumeric and allocates nothing but the returned String
+public final class CouponCodeSanitizer {
+
+    public static final int CODE_LENGTH = 6;
+
+    private CouponCodeSanitizer() {
+    }
+
+    public static String sanitize(String rawCode) {
+        if (rawCode == null) {
+            throw new CodeNotFoundException("code is required");
+        }
+
+        int length = rawCode.length();
+
+        // Fast path: the code already starts with six alphanumerics
+        int prefix = 0;
+        while (prefix < CODE_LENGTH && prefix < length && isAlphanumeric(rawCode.charAt(prefix))) {
+            prefix++;
+        }
+        if (prefix == CODE_LENGTH) {
+            return length == CODE_LENGTH ? rawCode : rawCode.substring(0, CODE_LENGTH);
+        }
+
+        char[] code = new char[CODE_LENGTH];
+        rawCode.getChars(0, prefix, code, 0);
+        int count = prefix;
+
+        for (int i = prefix + 1; i < length && count < CODE_LENGTH; i++) {
+            char c = rawCode.charAt(i);
+            if (isAlphanumeric(c)) {
+                code[count++] = c;
+            }
+        }
+
+        if (count < CODE_LENGTH) {
+            throw new BusinessException("code must have 6 alphanumeric characters after sanitization");
+        }
+
+        return new String(code);
+    }
+
+    public static boolean isAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+}
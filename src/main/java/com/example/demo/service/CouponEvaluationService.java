@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CartEvaluationRequest;
+import com.example.demo.dto.CartEvaluationResponse;
+import com.example.demo.dto.CouponEvaluation;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.service.CouponService.ResolvedCode;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Answers "which of these codes applies to this cart and what does it take off" without redeeming anything.
+// Cached coupons are resolved in memory; all the misses together cost one IN query on the live_code index.
+@Service
+public class CouponEvaluationService {
+
+    public static final int MAX_CODES = 100;
+
+    private final CouponService couponService;
+    private final CouponMetrics metrics;
+
+    public CouponEvaluationService(CouponService couponService, CouponMetrics metrics) {
+        this.couponService = couponService;
+        this.metrics = metrics;
+    }
+
+    public CartEvaluationResponse evaluate(CartEvaluationRequest request) {
+        return metrics.record("evaluate", () -> {
+            List<String> rawCodes = request.getCodes();
+            if (rawCodes == null || rawCodes.isEmpty() || rawCodes.size() > MAX_CODES) {
+                throw new BusinessException("codes must have between 1 and " + MAX_CODES + " entries");
+            }
+
+            BigDecimal cartTotal = request.getCartTotal();
+            if (cartTotal == null || cartTotal.signum() < 0
+                    || cartTotal.stripTrailingZeros().scale() > CouponService.MONEY_SCALE) {
+                throw new BusinessException("cartTotal must be a non-negative amount with at most "
+                        + CouponService.MONEY_SCALE + " decimal places");
+            }
+            cartTotal = cartTotal.setScale(CouponService.MONEY_SCALE);
+
+            // MAX_CODES fits in one chunk, so all the misses cost a single query
+            List<ResolvedCode> resolved = couponService.resolveCodes(rawCodes, MAX_CODES);
+
+            Instant now = Instant.now();
+            List<CouponEvaluation> results = new ArrayList<>(resolved.size());
+            CouponEvaluation best = null;
+
+            for (int i = 0; i < resolved.size(); i++) {
+                CouponEvaluation evaluation = evaluate(rawCodes.get(i), resolved.get(i), cartTotal, now);
+                results.add(evaluation);
+                // Strictly greater: on a tie the first code sent wins
+                if (evaluation.isApplicable() && (best == null || evaluation.getDiscount().compareTo(best.getDiscount()) > 0)) {
+                    best = evaluation;
+                }
+            }
+
+            BigDecimal totalAfterDiscount = best == null ? cartTotal : cartTotal.subtract(best.getDiscount());
+            return new CartEvaluationResponse(cartTotal, best, totalAfterDiscount, results);
+        });
+    }
+
+    private CouponEvaluation evaluate(String rawCode, ResolvedCode resolved, BigDecimal cartTotal, Instant now) {
+        if (resolved.invalid() != null) {
+            return CouponEvaluation.rejected(rawCode, null, resolved.invalid());
+        }
+
+        CouponResponse coupon = resolved.coupon();
+        if (coupon == null) {
+            return CouponEvaluation.rejected(rawCode, null, "Coupon not found");
+        }
+
+        String rejection = rejectionOf(coupon, now);
+        if (rejection != null) {
+            return CouponEvaluation.rejected(rawCode, coupon.getId(), rejection);
+        }
+
+        // A fixed amount off, never more than the cart itself
+        return CouponEvaluation.applicable(rawCode, coupon.getId(), coupon.getDiscountValue().min(cartTotal));
+    }
+
+    // Same order and messages as CouponService.redeemFailure
+    private static String rejectionOf(CouponResponse coupon, Instant now) {
+        if (CouponStatusEnum.DELETED.equals(coupon.getStatus())) {
+            return "Coupon not found";
+        }
+
+        if (Boolean.TRUE.equals(coupon.getRedeemed())) {
+            return coupon.getMaxUses() != null ? "Coupon usage limit reached" : "Coupon already redeemed";
+        }
+
+        if (coupon.getExpirationDate() == null || !coupon.getExpirationDate().isAfter(now)) {
+            return "Coupon is expired";
+        }
+
+        if (!Boolean.TRUE.equals(coupon.getPublished())) {
+            return "Coupon is not published";
+        }
+
+        if (!CouponStatusEnum.ACTIVE.equals(coupon.getStatus())) {
+            return "Coupon is not active";
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.ExportFormatEnum;
+import com.example.demo.repository.CouponRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Service
+public class CouponExportService {
+
+    private static final String CSV_HEADER = "id,code,description,discountValue,expirationDate,status,published,redeemed\n";
+
+    private final CouponRepository repository;
+    private final CouponService couponService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public CouponExportService(CouponRepository repository,
+                               CouponService couponService,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${coupon.export.fetch-size:500}") int fetchSize) {
+        this.repository = repository;
+        this.couponService = couponService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    // Rows go from the JDBC cursor to the output one at a time and are detached right after being written,
+    // so heap use does not depend on how many coupons match
+    public void export(CouponFilter filter, ExportFormatEnum format, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            try (Stream<CouponEntity> rows = repository.streamAll(filter, fetchSize)) {
+                if (format == ExportFormatEnum.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+
+                rows.forEach(entity -> {
+                    write(writer, entity, format);
+                    entityManager.detach(entity);
+                });
+
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private void write(Writer writer, CouponEntity entity, ExportFormatEnum format) {
+        try {
+            if (format == ExportFormatEnum.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(couponService.toResponse(entity)));
+            } else {
+                writer.write(String.valueOf(entity.getId()));
+                writer.write(',');
+                writer.write(csv(entity.getCode()));
+                writer.write(',');
+                writer.write(csv(entity.getDescription()));
+                writer.write(',');
+                writer.write(String.valueOf(entity.getDiscountValue()));
+                writer.write(',');
+                writer.write(String.valueOf(entity.getExpirationDate()));
+                writer.write(',');
+                writer.write(String.valueOf(entity.getStatus()));
+                writer.write(',');
+                writer.write(String.valueOf(entity.getPublished()));
+                writer.write(',');
+                writer.write(String.valueOf(entity.getRedeemed()));
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CouponLookupItem;
+import com.example.demo.dto.CouponLookupRequest;
+import com.example.demo.dto.CouponLookupResponse;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.example.demo.service.CouponService.ResolvedCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Many coupons in one request: cache hits first, then one IN query per chunk of misses.
+// Results keep the request order; duplicates are answered once from the same lookup.
+@Service
+public class CouponLookupService {
+
+    public static final int MAX_LOOKUP_ITEMS = 5_000;
+
+    private final CouponRepository repository;
+    private final CouponCache cache;
+    private final CouponService couponService;
+    private final ReplicaStalenessGuard staleness;
+    private final CouponMetrics metrics;
+    private final int chunkSize;
+
+    public CouponLookupService(CouponRepository repository,
+                               CouponCache cache,
+                               CouponService couponService,
+                               ReplicaStalenessGuard staleness,
+                               CouponMetrics metrics,
+                               @Value("${coupon.batch.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.cache = cache;
+        this.couponService = couponService;
+        this.staleness = staleness;
+        this.metrics = metrics;
+        this.chunkSize = chunkSize;
+    }
+
+    public CouponLookupResponse lookup(CouponLookupRequest request) {
+        List<UUID> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> codes = request.getCodes() == null ? List.of() : request.getCodes();
+
+        if (ids.isEmpty() && codes.isEmpty()) {
+            throw new BusinessException("ids or codes is required");
+        }
+
+        if (ids.size() + codes.size() > MAX_LOOKUP_ITEMS) {
+            throw new BusinessException("at most " + MAX_LOOKUP_ITEMS + " ids and codes per request");
+        }
+
+        return metrics.record("lookup", () -> new CouponLookupResponse(lookupIds(ids), lookupCodes(codes)));
+    }
+
+    private List<CouponLookupItem> lookupIds(List<UUID> ids) {
+        // Only live coupons end up here; DELETED and missing ones are answered as not found
+        Map<UUID, CouponResponse> coupons = new HashMap<>();
+        Set<UUID> misses = new LinkedHashSet<>();
+
+        for (UUID id : ids) {
+            if (id == null || coupons.containsKey(id)) {
+                continue;
+            }
+            CouponResponse cached = cache.peekLive(id);
+            if (cached != null) {
+                coupons.put(id, cached);
+            } else if (!cache.isKnownDeleted(id)) {
+                misses.add(id);
+            }
+        }
+
+        long stamp = cache.stamp();
+        for (List<UUID> chunk : chunks(misses)) {
+            for (CouponEntity entity : staleness.readAll(chunk, () -> repository.findAllById(chunk))) {
+                if (CouponStatusEnum.DELETED.equals(entity.getStatus())) {
+                    cache.markDeleted(entity.getId());
+                } else {
+                    CouponResponse response = couponService.toResponse(entity);
+                    cache.put(response, stamp);
+                    coupons.put(entity.getId(), response);
+                }
+            }
+        }
+
+        List<CouponLookupItem> items = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            CouponResponse coupon = id == null ? null : coupons.get(id);
+            if (coupon != null) {
+                items.add(CouponLookupItem.found(id, null, coupon));
+            } else {
+                items.add(CouponLookupItem.notFound(id, null, id == null ? "id is required" : "Coupon not found"));
+            }
+        }
+        return items;
+    }
+
+    private List<CouponLookupItem> lookupCodes(List<String> rawCodes) {
+        List<ResolvedCode> resolved = couponService.resolveCodes(rawCodes, chunkSize);
+
+        List<CouponLookupItem> items = new ArrayList<>(resolved.size());
+        for (int i = 0; i < resolved.size(); i++) {
+            ResolvedCode code = resolved.get(i);
+            if (code.coupon() != null) {
+                items.add(CouponLookupItem.found(null, rawCodes.get(i), code.coupon()));
+            } else {
+                items.add(CouponLookupItem.notFound(null, rawCodes.get(i),
+                        code.invalid() != null ? code.invalid() : "Coupon not found"));
+            }
+        }
+        return items;
+    }
+
+    private <T> List<List<T>> chunks(Set<T> keys) {
+        List<T> all = new ArrayList<>(keys);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            chunks.add(all.subList(from, Math.min(from + chunkSize, all.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,103 +1,414 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.CouponCache;
+import com.example.demo.cache.SerializedCoupon;
+import com.example.demo.dto.CacheStatsResponse;
 import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponPageResponse;
 import com.example.demo.dto.CouponResponse;
 import com.example.demo.entities.CouponEntity;
 import com.example.demo.enums.CouponStatusEnum;
 import com.example.demo.exceptions.BusinessException;
 import com.example.demo.exceptions.CodeNotFoundException;
 import com.example.demo.exceptions.CouponAlreadyDeletedException;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.exceptions.CouponCodeAlreadyExistsException;
 import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.outbox.CouponOutbox;
 import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReadWriteRoutingDataSource;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class CouponService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MONEY_SCALE = 2;
+
+    private static final BigDecimal MIN_DISCOUNT = new BigDecimal("0.5");
+
+    // Unique index on live_code; H2 and PostgreSQL both name it in the violation message
+    private static final String LIVE_CODE_CONSTRAINT = "UK_COUPONS_LIVE_CODE";
+
     private final CouponRepository repository;
+    private final CouponCache cache;
+    private final CouponMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final ReplicaStalenessGuard staleness;
+    private final MultiUseRedemptionService multiUseRedemptions;
+    private final CouponCodeIndex codeIndex;
+    private final CouponOutbox outbox;
 
-    public CouponService(CouponRepository repository) {
+    public CouponService(CouponRepository repository, CouponCache cache, CouponMetrics metrics, ObjectMapper objectMapper,
+                         ReplicaStalenessGuard staleness, MultiUseRedemptionService multiUseRedemptions,
+                         CouponCodeIndex codeIndex, CouponOutbox outbox) {
         this.repository = repository;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.staleness = staleness;
+        this.multiUseRedemptions = multiUseRedemptions;
+        this.codeIndex = codeIndex;
+        this.outbox = outbox;
     }
 
+    // Writes run in one primary transaction, delete together with its existence check after a 0-row update
+    @Transactional
     public CouponResponse create(CouponDTO request) {
+        return metrics.record("create", () -> {
+            CouponEntity entity = toNewEntity(request);
 
-        String sanitizedCode = sanitizeCode(request.getCode());
+            try {
+                entity = repository.saveAndFlush(entity);
+            } catch (DataIntegrityViolationException ex) {
+                if (isLiveCodeConflict(ex)) {
+                    throw new CouponCodeAlreadyExistsException("Coupon code already in use");
+                }
+                throw ex;
+            }
 
-        if (request.getDiscountValue() == null || request.getDiscountValue() < 0.5) {
-            throw new BusinessException("discountValue must be at least 0.5");
+            staleness.markWritten(entity.getId());
+            staleness.markWritten(entity.getCode());
+            codeIndex.add(entity.getId(), entity.getCode(), entity.getStatus());
+            CouponResponse response = toResponse(entity);
+            outbox.created(response);
+            return response;
+        });
+    }
+
+    // The cached reads are not transactional, so a cache hit never takes a connection; on a miss the
+    // repository finders run read-only and go to the replica
+    public CouponResponse findById(UUID id) {
+        return metrics.record("findById", () -> cachedResponse(id));
+    }
+
+    // Hot read path: the JSON is serialized once per cache fill and then served as-is
+    public SerializedCoupon findSerializedById(UUID id) {
+        return metrics.record("findSerializedById", () -> cache.getJsonById(id, key -> serialize(cachedResponse(key))));
+    }
+
+    public CouponResponse findByCode(String rawCode) {
+        return metrics.record("findByCode", () -> {
+            String code = sanitizeCode(rawCode);
+
+            return cache.getByCode(code, this::loadByCode);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CouponPageResponse list(CouponFilter filter, UUID after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("size must be between 1 and " + MAX_PAGE_SIZE);
         }
 
-        if (request.getExpirationDate() == null ||
-                request.getExpirationDate().isBefore(Instant.now())) {
-            throw new BusinessException("expirationDate cannot be in the past");
+        // One extra row tells whether there is a next page without a COUNT query
+        List<CouponEntity> rows = repository.findPage(filter, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
         }
 
-        CouponEntity entity = new CouponEntity();
-        entity.setCode(sanitizedCode);
-        entity.setDescription(request.getDescription());
-        entity.setDiscountValue(request.getDiscountValue());
-        entity.setExpirationDate(request.getExpirationDate());
-        entity.setPublished(Boolean.TRUE.equals(request.getPublished()));
-        entity.setStatus(CouponStatusEnum.ACTIVE);
-        entity.setRedeemed(false);
+        List<CouponResponse> items = rows.stream().map(this::toResponse).toList();
+        UUID nextCursor = hasNext ? rows.get(rows.size() - 1).getId() : null;
 
-        entity = repository.save(entity);
+        return new CouponPageResponse(items, nextCursor);
+    }
 
-        return toResponse(entity);
+    @Transactional
+    public void delete(UUID id) {
+        metrics.run("delete", () -> {
+            int updated = repository.softDeleteById(id, CouponStatusEnum.DELETED);
+
+            if (updated == 0) {
+                if (repository.existsById(id)) {
+                    throw new CouponAlreadyDeletedException("Coupon already deleted");
+                }
+                throw new CouponNotFoundException("Coupon not found");
+            }
+            outbox.deleted(id);
+
+            // The code is released too; read on the primary so replica reads and the index learn it
+            // whether or not the coupon was cached
+            String code = repository.findCodeById(id);
+            staleness.markWritten(code);
+            codeIndex.markDeleted(code);
+            staleness.markWritten(id);
+            cache.markDeleted(id);
+        });
     }
 
-    public CouponResponse findById(UUID id) {
-        CouponEntity entity = repository.findById(id)
+    public void redeem(UUID id) {
+        redeem(id, null);
+    }
+
+    // Not transactional: a multi-use coupon already in the cache is redeemed without a connection. The
+    // single-use path is one conditional UPDATE (plus its outbox row); the read explaining a refusal is
+    // pinned to the primary.
+    public void redeem(UUID id, String customerId) {
+        metrics.run("redeem", () -> {
+            CouponResponse cached = cache.peekLive(id);
+            if (cached != null && cached.getMaxUses() != null) {
+                multiUseRedemptions.redeem(cached, customerId);
+                return;
+            }
+
+            int updated = outbox.inTransaction(() -> {
+                int rows = repository.redeemById(id, CouponStatusEnum.ACTIVE, Instant.now());
+                if (rows > 0) {
+                    outbox.redeemed(id, 1);
+                }
+                return rows;
+            });
+
+            if (updated == 0) {
+                long stamp = cache.stamp();
+                CouponEntity entity = ReadWriteRoutingDataSource.onPrimary(() -> repository.findById(id))
+                        .orElseThrow(() -> new CouponNotFoundException("Coupon not found"));
+                redeemMultiUseOrFail(entity, stamp, customerId);
+                return;
+            }
+
+            staleness.markWritten(id);
+            cache.evict(id);
+        });
+    }
+
+    public void redeemByCode(String rawCode) {
+        redeemByCode(rawCode, null);
+    }
+
+    public void redeemByCode(String rawCode, String customerId) {
+        metrics.run("redeemByCode", () -> {
+            String code = sanitizeCode(rawCode);
+
+            CouponResponse cached = cache.peekByCode(code);
+            if (cached != null && cached.getMaxUses() != null) {
+                multiUseRedemptions.redeem(cached, customerId);
+                return;
+            }
+
+            if (cached == null && !codeIndex.mayExist(code)) {
+                throw new CouponNotFoundException("Coupon not found");
+            }
+
+            int updated = outbox.inTransaction(() -> {
+                int rows = repository.redeemByCode(code, CouponStatusEnum.ACTIVE, Instant.now());
+                if (rows > 0) {
+                    outbox.redeemedByCode(code);
+                }
+                return rows;
+            });
+
+            if (updated == 0) {
+                long stamp = cache.stamp();
+                CouponEntity entity = ReadWriteRoutingDataSource.onPrimary(() -> repository.findByLiveCode(code))
+                        .orElseThrow(() -> new CouponNotFoundException("Coupon not found"));
+                redeemMultiUseOrFail(entity, stamp, customerId);
+                return;
+            }
+
+            staleness.markWritten(code);
+            cache.evictCode(code);
+        });
+    }
+
+    public CacheStatsResponse cacheStats() {
+        return cache.stats();
+    }
+
+    private CouponResponse cachedResponse(UUID id) {
+        return cache.getById(id, this::loadById)
                 .orElseThrow(() -> new CouponNotFoundException("Coupon not found"));
+    }
 
+    private SerializedCoupon serialize(CouponResponse response) {
+        try {
+            return new SerializedCoupon(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Coupon is not serializable", ex);
+        }
+    }
+
+    // DELETED coupons load as null so the cache keeps a negative entry for them
+    private CouponResponse loadById(UUID id) {
+        CouponEntity entity = staleness.read(id, () -> repository.findById(id))
+                .orElseThrow(() -> new CouponNotFoundException("Coupon not found"));
 
         if (CouponStatusEnum.DELETED.equals(entity.getStatus())) {
-            throw new CouponNotFoundException("Coupon not found");
+            return null;
         }
 
         return toResponse(entity);
     }
 
-    public void delete(UUID id) {
-        CouponEntity entity = repository.findById(id)
+    private CouponResponse loadByCode(String code) {
+        if (!codeIndex.mayExist(code)) {
+            throw new CouponNotFoundException("Coupon not found");
+        }
+
+        CouponEntity entity = staleness.read(code, () -> repository.findByLiveCode(code))
                 .orElseThrow(() -> new CouponNotFoundException("Coupon not found"));
 
+        return toResponse(entity);
+    }
+
+    // The single-use update never matches a multi-use coupon; cache it so the next redemption skips the DB
+    private void redeemMultiUseOrFail(CouponEntity entity, long stamp, String customerId) {
+        if (entity.getMaxUses() == null || CouponStatusEnum.DELETED.equals(entity.getStatus())) {
+            throw redeemFailure(entity);
+        }
+
+        CouponResponse response = toResponse(entity);
+        cache.put(response, stamp);
+        multiUseRedemptions.redeem(response, customerId);
+    }
+
+    // Only reached when the conditional update matched nothing, to tell the caller why
+    RuntimeException redeemFailure(CouponEntity entity) {
         if (CouponStatusEnum.DELETED.equals(entity.getStatus())) {
-            throw new CouponAlreadyDeletedException("Coupon already deleted");
+            return new CouponNotFoundException("Coupon not found");
+        }
+
+        if (Boolean.TRUE.equals(entity.getRedeemed())) {
+            return new CouponAlreadyRedeemedException("Coupon already redeemed");
+        }
+
+        if (entity.getExpirationDate() == null || !entity.getExpirationDate().isAfter(Instant.now())) {
+            return new BusinessException("Coupon is expired");
         }
 
-        entity.setStatus(CouponStatusEnum.DELETED);
-        repository.save(entity);
+        if (!Boolean.TRUE.equals(entity.getPublished())) {
+            return new BusinessException("Coupon is not published");
+        }
+
+        return new BusinessException("Coupon is not active");
     }
 
+    // Applies every creation rule and builds the entity to insert, shared with the batch paths
+    CouponEntity toNewEntity(CouponDTO request) {
+
+        String sanitizedCode = sanitizeCode(request.getCode());
+
+        if (request.getDiscountValue() == null || request.getDiscountValue().compareTo(MIN_DISCOUNT) < 0) {
+            throw new BusinessException("discountValue must be at least 0.5");
+        }
+
+        if (request.getDiscountValue().stripTrailingZeros().scale() > MONEY_SCALE) {
+            throw new BusinessException("discountValue must have at most " + MONEY_SCALE + " decimal places");
+        }
 
+        if (request.getExpirationDate() == null ||
+                request.getExpirationDate().isBefore(Instant.now())) {
+            throw new BusinessException("expirationDate cannot be in the past");
+        }
 
-    private String sanitizeCode(String rawCode) {
-        if (rawCode == null) {
-            throw new CodeNotFoundException("code is required");
+        if (request.getMaxUses() != null && request.getMaxUses() < 1) {
+            throw new BusinessException("maxUses must be at least 1");
         }
 
+        if (request.getMaxUsesPerCustomer() != null) {
+            if (request.getMaxUses() == null) {
+                throw new BusinessException("maxUsesPerCustomer requires maxUses");
+            }
+            if (request.getMaxUsesPerCustomer() < 1 || request.getMaxUsesPerCustomer() > request.getMaxUses()) {
+                throw new BusinessException("maxUsesPerCustomer must be between 1 and maxUses");
+            }
+        }
 
-        String sanitized = rawCode.replaceAll("[^A-Za-z0-9]", "");
+        CouponEntity entity = new CouponEntity();
+        entity.setCode(sanitizedCode);
+        entity.setDescription(request.getDescription());
+        entity.setDiscountValue(request.getDiscountValue().setScale(MONEY_SCALE));
+        entity.setExpirationDate(request.getExpirationDate());
+        entity.setPublished(Boolean.TRUE.equals(request.getPublished()));
+        entity.setStatus(CouponStatusEnum.ACTIVE);
+        entity.setRedeemed(false);
+        entity.setMaxUses(request.getMaxUses());
+        entity.setMaxUsesPerCustomer(request.getMaxUsesPerCustomer());
+
+        return entity;
+    }
+
+    // Only the live-code unique index means "code already in use"; any other violation is a real error
+    static boolean isLiveCodeConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toUpperCase(Locale.ROOT).contains(LIVE_CODE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String sanitizeCode(String rawCode) {
+        return CouponCodeSanitizer.sanitize(rawCode);
+    }
 
+    // Shared by the multi-code endpoints: sanitizes each code, answers what it can from the cache and fetches
+    // the misses with one IN query per chunk. One entry per requested code, in request order.
+    List<ResolvedCode> resolveCodes(List<String> rawCodes, int chunkSize) {
+        String[] codes = new String[rawCodes.size()];
+        String[] invalid = new String[rawCodes.size()];
+        Map<String, CouponResponse> coupons = new HashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
 
-        if (sanitized.length() > 6) {
-            sanitized = sanitized.substring(0, 6);
+        for (int i = 0; i < codes.length; i++) {
+            try {
+                codes[i] = sanitizeCode(rawCodes.get(i));
+            } catch (BusinessException | CodeNotFoundException ex) {
+                invalid[i] = ex.getMessage();
+                continue;
+            }
+            if (!coupons.containsKey(codes[i])) {
+                CouponResponse cached = cache.peekByCode(codes[i]);
+                if (cached != null) {
+                    coupons.put(codes[i], cached);
+                } else if (codeIndex.mayExist(codes[i])) {
+                    misses.add(codes[i]);
+                }
+            }
         }
 
-        if (sanitized.length() < 6) {
-            throw new BusinessException("code must have 6 alphanumeric characters after sanitization");
+        // live_code is cleared on delete, so DELETED coupons never come back from this query
+        long stamp = cache.stamp();
+        List<String> pending = new ArrayList<>(misses);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<String> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            for (CouponEntity entity : staleness.readAll(chunk, () -> repository.findByLiveCodeIn(chunk))) {
+                CouponResponse response = toResponse(entity);
+                cache.put(response, stamp);
+                coupons.put(response.getCode(), response);
+            }
         }
 
-        return sanitized;
+        List<ResolvedCode> resolved = new ArrayList<>(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            resolved.add(new ResolvedCode(invalid[i] == null ? coupons.get(codes[i]) : null, invalid[i]));
+        }
+        return resolved;
     }
 
-    private CouponResponse toResponse(CouponEntity entity) {
+    CouponResponse toResponse(CouponEntity entity) {
         CouponResponse resp = new CouponResponse();
         resp.setId(entity.getId());
         resp.setCode(entity.getCode());
@@ -107,7 +418,14 @@ public class CouponService {
         resp.setStatus(entity.getStatus());
         resp.setPublished(entity.getPublished());
         resp.setRedeemed(entity.getRedeemed());
+        resp.setMaxUses(entity.getMaxUses());
+        resp.setMaxUsesPerCustomer(entity.getMaxUsesPerCustomer());
+        resp.setRedemptionCount(entity.getMaxUses() != null ? entity.getRedemptionCount() : null);
 
         return resp;
     }
+
+    // Both null: a well-formed code with no live coupon
+    record ResolvedCode(CouponResponse coupon, String invalid) {
+    }
 }
@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CouponUsageLimitReachedException;
+import com.example.demo.quota.CouponQuotaManager;
+import com.example.demo.repository.CouponCustomerUsesRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Redeems coupons with maxUses. The coupon is checked against the cached response and the total comes
+// from this node's quota slices, so a hot public code does not touch the coupon row per redemption.
+// Only the per-customer limit is a DB write, on that customer's own row.
+@Service
+public class MultiUseRedemptionService {
+
+    public static final String CUSTOMER_HEADER = "X-Customer-Id";
+
+    private static final int MAX_CUSTOMER_LENGTH = 64;
+
+    private final CouponQuotaManager quotaManager;
+    private final CouponCustomerUsesRepository customerUses;
+
+    public MultiUseRedemptionService(CouponQuotaManager quotaManager, CouponCustomerUsesRepository customerUses) {
+        this.quotaManager = quotaManager;
+        this.customerUses = customerUses;
+    }
+
+    public void redeem(CouponResponse coupon, String customerId) {
+        checkRedeemable(coupon);
+
+        Integer perCustomer = coupon.getMaxUsesPerCustomer();
+        if (perCustomer != null && (customerId == null || customerId.isBlank() || customerId.length() > MAX_CUSTOMER_LENGTH)) {
+            throw new BusinessException(CUSTOMER_HEADER + " with up to " + MAX_CUSTOMER_LENGTH
+                    + " characters is required for this coupon");
+        }
+
+        if (!quotaManager.tryAcquire(coupon.getId())) {
+            throw new CouponUsageLimitReachedException("Coupon usage limit reached");
+        }
+
+        if (perCustomer == null) {
+            return;
+        }
+
+        boolean counted;
+        try {
+            counted = countCustomerUse(coupon.getId(), customerId, perCustomer);
+        } catch (RuntimeException ex) {
+            quotaManager.release(coupon.getId());
+            throw ex;
+        }
+        if (!counted) {
+            quotaManager.release(coupon.getId());
+            throw new CouponUsageLimitReachedException("Coupon usage limit reached for this customer");
+        }
+    }
+
+    // Same rules and messages as the single-use conditional update
+    private void checkRedeemable(CouponResponse coupon) {
+        if (coupon.getExpirationDate() == null || !coupon.getExpirationDate().isAfter(Instant.now())) {
+            throw new BusinessException("Coupon is expired");
+        }
+
+        if (!Boolean.TRUE.equals(coupon.getPublished())) {
+            throw new BusinessException("Coupon is not published");
+        }
+
+        if (!CouponStatusEnum.ACTIVE.equals(coupon.getStatus())) {
+            throw new BusinessException("Coupon is not active");
+        }
+    }
+
+    private boolean countCustomerUse(UUID couponId, String customerId, int limit) {
+        if (customerUses.incrementUses(couponId, customerId, limit) > 0) {
+            return true;
+        }
+        try {
+            return customerUses.insertFirstUse(couponId, customerId) > 0;
+        } catch (DataIntegrityViolationException ex) {
+            // Lost the race for the first use; the row exists now
+            return customerUses.incrementUses(couponId, customerId, limit) > 0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.entities.UuidV7Generator;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CouponAlreadyDeletedException;
+import com.example.demo.exceptions.CouponCodeAlreadyExistsException;
+import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.outbox.CouponOutbox;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Non-blocking counterpart of CouponService over R2DBC, same rules, same SQL conditions
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCouponService {
+
+    private static final String COLUMNS =
+            "id, code, description, discount_value, expiration_date, status, published, redeemed, "
+                    + "max_uses, max_uses_per_customer, redemption_count";
+
+    // Multi-use coupons need the node-local quota slices of the servlet stack
+    private static final String MULTI_USE_UNSUPPORTED = "Multi-use coupons are not supported by the reactive stack";
+
+    // Same outbox rows as CouponOutboxRepository writes on the servlet stack
+    private static final String APPEND_EVENT = """
+            INSERT INTO coupon_outbox (coupon_id, code, event_type, payload, created_at)
+            SELECT c.id, c.code, CAST(:type AS VARCHAR(16)), CAST(:payload AS VARCHAR(8192)), CURRENT_TIMESTAMP
+            FROM coupons c
+            """;
+    private static final String BY_ID = "WHERE c.id = :key";
+    private static final String BY_LIVE_CODE = "WHERE c.live_code = :key";
+
+    private final DatabaseClient client;
+    private final CouponService couponService;
+    private final CouponCache cache;
+    private final CouponCodeIndex codeIndex;
+    private final CouponOutbox outbox;
+    // Local to this service: the application-wide transaction manager stays the JPA one
+    private final TransactionalOperator transactions;
+
+    public ReactiveCouponService(ConnectionFactory connectionFactory, CouponService couponService, CouponCache cache,
+                                 CouponCodeIndex codeIndex, CouponOutbox outbox) {
+        this.client = DatabaseClient.create(connectionFactory);
+        this.couponService = couponService;
+        this.cache = cache;
+        this.codeIndex = codeIndex;
+        this.outbox = outbox;
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public Mono<CouponResponse> create(CouponDTO request) {
+        return Mono.fromCallable(() -> couponService.toNewEntity(request))
+                .flatMap(entity -> {
+                    if (entity.getMaxUses() != null) {
+                        return Mono.<CouponResponse>error(new BusinessException(MULTI_USE_UNSUPPORTED));
+                    }
+                    entity.setId(UuidV7Generator.next());
+                    CouponResponse response = couponService.toResponse(entity);
+                    Mono<Long> insert = client.sql("""
+                                    INSERT INTO coupons (id, code, live_code, description, discount_value,
+                                                         expiration_date, status, published, redeemed)
+                                    VALUES (:id, :code, :code, :description, :discountValue,
+                                            :expirationDate, :status, :published, :redeemed)
+                                    """)
+                            .bind("id", entity.getId())
+                            .bind("code", entity.getCode())
+                            .bind("description", entity.getDescription())
+                            .bind("discountValue", entity.getDiscountValue())
+                            .bind("expirationDate", toTimestamp(entity.getExpirationDate()))
+                            .bind("status", entity.getStatus().name())
+                            .bind("published", entity.getPublished())
+                            .bind("redeemed", entity.getRedeemed())
+                            .fetch()
+                            .rowsUpdated();
+                    return withEvent(insert, BY_ID, entity.getId(), CouponEventTypeEnum.CREATED,
+                                    () -> outbox.createdPayload(response))
+                            .doOnSuccess(rows -> codeIndex.add(entity.getId(), entity.getCode(), entity.getStatus()))
+                            .thenReturn(response);
+                })
+                .onErrorMap(ex -> ex instanceof DataIntegrityViolationException && CouponService.isLiveCodeConflict(ex),
+                        ex -> new CouponCodeAlreadyExistsException("Coupon code already in use"));
+    }
+
+    public Mono<CouponResponse> findById(UUID id) {
+        CouponResponse cached = cache.peekLive(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (cache.isKnownDeleted(id)) {
+            return Mono.error(() -> new CouponNotFoundException("Coupon not found"));
+        }
+
+        long stamp = cache.stamp();
+        return selectById(id)
+                .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                .flatMap(entity -> {
+                    // Same negative entry as the servlet path keeps for DELETED coupons
+                    if (CouponStatusEnum.DELETED.equals(entity.getStatus())) {
+                        cache.markDeleted(id);
+                        return Mono.<CouponResponse>error(new CouponNotFoundException("Coupon not found"));
+                    }
+                    CouponResponse response = couponService.toResponse(entity);
+                    cache.put(response, stamp);
+                    return Mono.just(response);
+                });
+    }
+
+    public Mono<CouponResponse> findByCode(String rawCode) {
+        return Mono.fromCallable(() -> couponService.sanitizeCode(rawCode))
+                .flatMap(code -> {
+                    CouponResponse cached = cache.peekByCode(code);
+                    if (cached != null) {
+                        return Mono.just(cached);
+                    }
+                    if (!codeIndex.mayExist(code)) {
+                        return Mono.<CouponResponse>error(new CouponNotFoundException("Coupon not found"));
+                    }
+                    long stamp = cache.stamp();
+                    return selectByLiveCode(code)
+                            .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                            .map(entity -> {
+                                CouponResponse response = couponService.toResponse(entity);
+                                cache.put(response, stamp);
+                                return response;
+                            });
+                });
+    }
+
+    public Mono<Void> delete(UUID id) {
+        Mono<Long> update = client.sql("""
+                        UPDATE coupons SET status = :deleted, live_code = NULL
+                        WHERE id = :id AND status <> :deleted
+                        """)
+                .bind("id", id)
+                .bind("deleted", CouponStatusEnum.DELETED.name())
+                .fetch()
+                .rowsUpdated();
+
+        return withEvent(update, BY_ID, id, CouponEventTypeEnum.DELETED, () -> CouponOutbox.EMPTY_PAYLOAD)
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        cache.markDeleted(id);
+                        // The code never changes, so reading it after the delete still names the one released
+                        return client.sql("SELECT code FROM coupons WHERE id = :id")
+                                .bind("id", id)
+                                .map(row -> row.get("code", String.class))
+                                .one()
+                                .doOnNext(codeIndex::markDeleted)
+                                .then();
+                    }
+                    return selectById(id)
+                            .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                            .flatMap(entity -> Mono.<Void>error(new CouponAlreadyDeletedException("Coupon already deleted")));
+                });
+    }
+
+    public Mono<Void> redeem(UUID id) {
+        Mono<Long> update = client.sql("""
+                        UPDATE coupons SET redeemed = TRUE
+                        WHERE id = :id
+                          AND max_uses IS NULL
+                          AND status = :status
+                          AND published = TRUE
+                          AND redeemed = FALSE
+                          AND expiration_date > :now
+                        """)
+                .bind("id", id)
+                .bind("status", CouponStatusEnum.ACTIVE.name())
+                .bind("now", toTimestamp(Instant.now()))
+                .fetch()
+                .rowsUpdated();
+
+        return withEvent(update, BY_ID, id, CouponEventTypeEnum.REDEEMED, () -> CouponOutbox.redeemedPayload(1))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        cache.evict(id);
+                        return Mono.<Void>empty();
+                    }
+                    return selectById(id)
+                            .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                            .flatMap(entity -> Mono.<Void>error(redeemFailure(entity)));
+                });
+    }
+
+    public Mono<Void> redeemByCode(String rawCode) {
+        return Mono.fromCallable(() -> couponService.sanitizeCode(rawCode))
+                .filter(codeIndex::mayExist)
+                .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                .flatMap(code -> withEvent(client.sql("""
+                                UPDATE coupons SET redeemed = TRUE
+                                WHERE live_code = :code
+                                  AND max_uses IS NULL
+                                  AND status = :status
+                                  AND published = TRUE
+                                  AND redeemed = FALSE
+                                  AND expiration_date > :now
+                                """)
+                        .bind("code", code)
+                        .bind("status", CouponStatusEnum.ACTIVE.name())
+                        .bind("now", toTimestamp(Instant.now()))
+                        .fetch()
+                        .rowsUpdated(), BY_LIVE_CODE, code, CouponEventTypeEnum.REDEEMED, () -> CouponOutbox.redeemedPayload(1))
+                        .flatMap(updated -> {
+                            if (updated > 0) {
+                                cache.evictCode(code);
+                                return Mono.<Void>empty();
+                            }
+                            return selectByLiveCode(code)
+                                    .switchIfEmpty(Mono.error(() -> new CouponNotFoundException("Coupon not found")))
+                                    .flatMap(entity -> Mono.<Void>error(redeemFailure(entity)));
+                        }));
+    }
+
+    // Runs the change and, when it touched a row, appends its event in the same R2DBC transaction;
+    // without the outbox the change keeps its own auto-commit statement
+    private Mono<Long> withEvent(Mono<Long> change, String where, Object key, CouponEventTypeEnum type,
+                                 Supplier<String> payload) {
+        if (!outbox.isEnabled()) {
+            return change;
+        }
+        return change
+                .flatMap(rows -> rows == 0 ? Mono.just(rows) : client.sql(APPEND_EVENT + where)
+                        .bind("type", type.name())
+                        .bind("payload", payload.get())
+                        .bind("key", key)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(rows))
+                .as(transactions::transactional);
+    }
+
+    private RuntimeException redeemFailure(CouponEntity entity) {
+        if (entity.getMaxUses() != null && !CouponStatusEnum.DELETED.equals(entity.getStatus())) {
+            return new BusinessException(MULTI_USE_UNSUPPORTED);
+        }
+        return couponService.redeemFailure(entity);
+    }
+
+    private Mono<CouponEntity> selectById(UUID id) {
+        return client.sql("SELECT " + COLUMNS + " FROM coupons WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCouponService::toEntity)
+                .one();
+    }
+
+    private Mono<CouponEntity> selectByLiveCode(String code) {
+        return client.sql("SELECT " + COLUMNS + " FROM coupons WHERE live_code = :code")
+                .bind("code", code)
+                .map(ReactiveCouponService::toEntity)
+                .one();
+    }
+
+    private static CouponEntity toEntity(Readable row) {
+        OffsetDateTime expiration = row.get("expiration_date", OffsetDateTime.class);
+
+        CouponEntity entity = new CouponEntity(
+                row.get("id", UUID.class),
+                row.get("code", String.class),
+                row.get("description", String.class),
+                row.get("discount_value", BigDecimal.class),
+                expiration == null ? null : expiration.toInstant(),
+                CouponStatusEnum.valueOf(row.get("status", String.class)),
+                row.get("published", Boolean.class),
+                row.get("redeemed", Boolean.class));
+        entity.setMaxUses(row.get("max_uses", Integer.class));
+        entity.setMaxUsesPerCustomer(row.get("max_uses_per_customer", Integer.class));
+        entity.setRedemptionCount(row.get("redemption_count", Integer.class));
+        return entity;
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,19 @@
+CREATE TABLE coupons (
+    id              UUID                     NOT NULL,
+    code            VARCHAR(255),
+    live_code       VARCHAR(6),
+    description     VARCHAR(350),
+    discount_value  DOUBLE PRECISION,
+    expiration_date TIMESTAMP(6) WITH TIME ZONE,
+    status          VARCHAR(16)              NOT NULL,
+    published       BOOLEAN,
+    redeemed        BOOLEAN,
+    CONSTRAINT pk_coupons PRIMARY KEY (id),
+    CONSTRAINT uk_coupons_live_code UNIQUE (live_code)
+);
+
+-- Listing filters: equality on status/flags, then seek on id
+CREATE INDEX idx_coupons_status_flags_id ON coupons (status, published, redeemed, id);
+
+-- Expiration sweeper
+CREATE INDEX idx_coupons_status_expiration ON coupons (status, expiration_date, id);
@@ -0,0 +1,10 @@
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(300)                NOT NULL,
+    fingerprint     VARCHAR(64)                 NOT NULL,
+    response_status INTEGER                     NOT NULL,
+    response_body   VARCHAR(8192),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
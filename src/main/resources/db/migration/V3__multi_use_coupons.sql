@@ -0,0 +1,13 @@
+-- Multi-use coupons: NULL max_uses keeps a coupon single-use
+ALTER TABLE coupons ADD COLUMN max_uses INTEGER;
+ALTER TABLE coupons ADD COLUMN max_uses_per_customer INTEGER;
+ALTER TABLE coupons ADD COLUMN allocated_uses INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE coupons ADD COLUMN redemption_count INTEGER DEFAULT 0 NOT NULL;
+
+-- One row per customer of a coupon with a per-customer limit
+CREATE TABLE coupon_customer_uses (
+    coupon_id   UUID        NOT NULL,
+    customer_id VARCHAR(64) NOT NULL,
+    uses        INTEGER     NOT NULL,
+    CONSTRAINT pk_coupon_customer_uses PRIMARY KEY (coupon_id, customer_id)
+);
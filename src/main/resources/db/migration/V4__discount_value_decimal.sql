@@ -0,0 +1,2 @@
+-- Money as an exact decimal; existing values are rounded to cents
+ALTER TABLE coupons ALTER COLUMN discount_value SET DATA TYPE NUMERIC(12, 2);
@@ -0,0 +1,11 @@
+-- Transactional outbox: one row per coupon change, written in the transaction of the change and
+-- deleted by the relay once the event is published; id order is the publication order
+CREATE TABLE coupon_outbox (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    coupon_id  UUID                                    NOT NULL,
+    code       VARCHAR(255),
+    event_type VARCHAR(16)                             NOT NULL,
+    payload    VARCHAR(8192)                           NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE             NOT NULL,
+    CONSTRAINT pk_coupon_outbox PRIMARY KEY (id)
+);
@@ -0,0 +1,5 @@
+-- Insert time assigned by the database clock: the code index refresh reads rows created since a watermark
+-- taken from this column, so the application clocks of the nodes play no part
+ALTER TABLE coupons ADD COLUMN created_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX idx_coupons_created_at ON coupons (created_at);
@@ -0,0 +1,75 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.CouponResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponCacheTest {
+
+    private static final UUID ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private CouponCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new CouponCache(100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldNotResurrectCouponEvictedDuringTheLoad() {
+        long stamp = cache.stamp();
+        cache.evict(ID);
+
+        cache.put(coupon("ABC123"), stamp);
+
+        assertThat(cache.peekLive(ID)).isNull();
+        assertThat(cache.isKnownDeleted(ID)).isFalse();
+        assertThat(cache.peekByCode("ABC123")).isNull();
+    }
+
+    @Test
+    void shouldNotResurrectCodeEvictedDuringTheLoad() {
+        long stamp = cache.stamp();
+        cache.evictCode("ABC123");
+
+        cache.put(coupon("ABC123"), stamp);
+
+        assertThat(cache.peekLive(ID)).isNull();
+        assertThat(cache.isKnownDeleted(ID)).isFalse();
+        assertThat(cache.getByCode("ABC123", code -> coupon(code)).getId()).isEqualTo(ID);
+        assertThat(cache.peekByCode("ABC123")).isNotNull();
+    }
+
+    @Test
+    void shouldCacheLoadsStartedAfterTheEviction() {
+        cache.evict(ID);
+        long stamp = cache.stamp();
+
+        cache.put(coupon("ABC123"), stamp);
+
+        assertThat(cache.peekByCode("ABC123").getId()).isEqualTo(ID);
+    }
+
+    @Test
+    void shouldNotOverwriteDeletedCouponWithStaleLoad() {
+        long stamp = cache.stamp();
+        cache.markDeleted(ID);
+
+        cache.put(coupon("ABC123"), stamp);
+
+        assertThat(cache.peekLive(ID)).isNull();
+        assertThat(cache.isKnownDeleted(ID)).isTrue();
+    }
+
+    private static CouponResponse coupon(String code) {
+        CouponResponse response = new CouponResponse();
+        response.setId(ID);
+        response.setCode(code);
+        return response;
+    }
+}
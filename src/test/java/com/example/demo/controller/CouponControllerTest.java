@@ -1,11 +1,33 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.SerializedCoupon;
+import com.example.demo.dto.BatchItemResult;
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.BulkDeleteResponse;
+import com.example.demo.dto.CartEvaluationRequest;
+import com.example.demo.dto.CartEvaluationResponse;
 import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponEvaluation;
+import com.example.demo.dto.CouponLookupItem;
+import com.example.demo.dto.CouponLookupRequest;
+import com.example.demo.dto.CouponLookupResponse;
+import com.example.demo.dto.CouponPageResponse;
 import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.BatchItemStatusEnum;
 import com.example.demo.enums.CouponStatusEnum;
 import com.example.demo.exceptions.CouponAlreadyDeletedException;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.exceptions.CouponCodeAlreadyExistsException;
 import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.exceptions.CouponUsageLimitReachedException;
+import com.example.demo.exceptions.IdempotencyKeyReusedException;
+import com.example.demo.idempotency.IdempotencyService;
+import com.example.demo.service.CouponBatchService;
+import com.example.demo.service.CouponEvaluationService;
+import com.example.demo.service.CouponExportService;
+import com.example.demo.service.CouponLookupService;
 import com.example.demo.service.CouponService;
+import com.example.demo.service.MultiUseRedemptionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -14,17 +36,32 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
 
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,13 +78,28 @@ class CouponControllerTest {
     @MockitoBean
     private CouponService couponService;
 
+    @MockitoBean
+    private CouponBatchService couponBatchService;
+
+    @MockitoBean
+    private CouponExportService couponExportService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private CouponEvaluationService couponEvaluationService;
+
+    @MockitoBean
+    private CouponLookupService couponLookupService;
+
 
     @Test
     void shouldReturn201WhenCreateIsSuccessful() throws Exception {
         CouponDTO request = new CouponDTO();
         request.setCode("ABC123!!");
         request.setDescription("Cupom de teste");
-        request.setDiscountValue(10.0);
+        request.setDiscountValue(new BigDecimal("10.0"));
         request.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
         request.setPublished(false);
 
@@ -81,7 +133,22 @@ class CouponControllerTest {
         CouponDTO request = new CouponDTO();
         request.setCode("ABC123");
         request.setDescription("");
-        request.setDiscountValue((0.4));
+        request.setDiscountValue(new BigDecimal("0.4"));
+        request.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    void shouldReturn400WhenDescriptionExceedsTheColumn() throws Exception {
+        CouponDTO request = new CouponDTO();
+        request.setCode("ABC123");
+        request.setDescription("x".repeat(351));
+        request.setDiscountValue(new BigDecimal("10.0"));
         request.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
 
         mockMvc.perform(post("/coupon")
@@ -89,6 +156,7 @@ class CouponControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
+        verifyNoInteractions(couponService);
     }
 
     @Test
@@ -115,4 +183,200 @@ class CouponControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void shouldReturn204WhenRedeemIsSuccessful() throws Exception {
+        mockMvc.perform(post("/coupon/{id}/redeem", UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50")))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldReturn409WhenCouponAlreadyRedeemed() throws Exception {
+        doThrow(new CouponAlreadyRedeemedException("already redeemed"))
+                .when(couponService).redeemByCode(eq("ABC123"), isNull());
+
+        mockMvc.perform(post("/coupon/code/{code}/redeem", "ABC123"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldPassCustomerAndReturn409WhenUsageLimitReached() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        doThrow(new CouponUsageLimitReachedException("Coupon usage limit reached for this customer"))
+                .when(couponService).redeem(id, "customer-1");
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id)
+                        .header(MultiUseRedemptionService.CUSTOMER_HEADER, "customer-1"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturn422WhenIdempotencyKeyIsReusedWithAnotherCoupon() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        when(idempotencyService.execute(eq("redeem"), eq("retry-1"), eq(id), eq(Void.class), any()))
+                .thenThrow(new IdempotencyKeyReusedException("reused"));
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id)
+                        .header(IdempotencyService.HEADER, "retry-1"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void shouldReturnCachedJsonWithEtagAnd304WhenItMatches() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        SerializedCoupon coupon = new SerializedCoupon(
+                "{\"id\":\"d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50\",\"code\":\"ABC123\"}".getBytes(StandardCharsets.UTF_8));
+
+        when(couponService.findSerializedById(id)).thenReturn(coupon);
+
+        mockMvc.perform(get("/coupon/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", coupon.getEtag()))
+                .andExpect(jsonPath("$.code", is("ABC123")));
+
+        mockMvc.perform(get("/coupon/{id}", id).header("If-None-Match", coupon.getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldReturn200WhenFindByCodeIsSuccessful() throws Exception {
+        CouponResponse response = new CouponResponse();
+        response.setId(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"));
+        response.setCode("ABC123");
+        response.setStatus(CouponStatusEnum.ACTIVE);
+
+        when(couponService.findByCode("ABC123")).thenReturn(response);
+
+        mockMvc.perform(get("/coupon/code/{code}", "ABC123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code", is("ABC123")));
+    }
+
+    @Test
+    void shouldReturn409WhenCodeAlreadyExistsOnCreate() throws Exception {
+        CouponDTO request = new CouponDTO("ABC123", "Cupom de teste", new BigDecimal("10.0"), Instant.now().plus(1, ChronoUnit.DAYS), false);
+
+        when(couponService.create(any(CouponDTO.class))).thenThrow(new CouponCodeAlreadyExistsException("in use"));
+
+        mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldStreamPerItemResultsForBatch() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            for (BatchItemResult result : List.of(BatchItemResult.created(0, id, "ABC123"),
+                    BatchItemResult.failed(1, BatchItemStatusEnum.DUPLICATE, "Coupon code already in use"))) {
+                out.write((objectMapper.writeValueAsString(result) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        }).when(couponBatchService).createBatch(any(InputStream.class), any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(post("/coupon/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"code\":\"ABC123\"}\n{\"code\":\"ABC123\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(id.toString());
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("DUPLICATE");
+    }
+
+    @Test
+    void shouldBindListFiltersAndCursor() throws Exception {
+        UUID after = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponResponse item = new CouponResponse();
+        item.setId(UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1"));
+        item.setCode("ABC123");
+
+        when(couponService.list(argThat(f -> f.getStatus() == CouponStatusEnum.ACTIVE
+                        && Boolean.TRUE.equals(f.getPublished())
+                        && Instant.parse("2030-01-01T00:00:00Z").equals(f.getExpiresBefore())),
+                eq(after), eq(20)))
+                .thenReturn(new CouponPageResponse(List.of(item), item.getId()));
+
+        mockMvc.perform(get("/coupon")
+                        .param("status", "ACTIVE")
+                        .param("published", "true")
+                        .param("expiresBefore", "2030-01-01T00:00:00Z")
+                        .param("after", after.toString())
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is(item.getId().toString())));
+    }
+
+    @Test
+    void shouldReturnDeletedCountForBulkDelete() throws Exception {
+        when(couponBatchService.bulkDelete(any(BulkDeleteRequest.class))).thenReturn(new BulkDeleteResponse(2));
+
+        mockMvc.perform(delete("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50\",\"55e5847f-9971-4d84-8921-c0186bc006e1\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @Test
+    void shouldReturnBestCouponForCart() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEvaluation best = CouponEvaluation.applicable("ABC123", id, new BigDecimal("10.00"));
+        CartEvaluationResponse response = new CartEvaluationResponse(new BigDecimal("50.00"), best, new BigDecimal("40.00"),
+                List.of(best, CouponEvaluation.rejected("XYZ999", null, "Coupon not found")));
+
+        when(couponEvaluationService.evaluate(any(CartEvaluationRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/coupon/evaluate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cartTotal\":50.00,\"codes\":[\"ABC123\",\"XYZ999\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.best.code", is("ABC123")))
+                .andExpect(jsonPath("$.totalAfterDiscount", is(40.0)))
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[1].applicable", is(false)))
+                .andExpect(jsonPath("$.results[1].reason", is("Coupon not found")));
+    }
+
+    @Test
+    void shouldReturn400WhenCartHasNoCodes() throws Exception {
+        mockMvc.perform(post("/coupon/evaluate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cartTotal\":50.00,\"codes\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnLookupItemsInRequestOrder() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        UUID missing = UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1");
+        CouponResponse coupon = new CouponResponse();
+        coupon.setId(id);
+        coupon.setCode("ABC123");
+
+        when(couponLookupService.lookup(any(CouponLookupRequest.class))).thenReturn(new CouponLookupResponse(
+                List.of(CouponLookupItem.found(id, null, coupon), CouponLookupItem.notFound(missing, null, "Coupon not found")),
+                List.of(CouponLookupItem.found(null, "ABC123", coupon))));
+
+        mockMvc.perform(post("/coupon/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + id + "\",\"" + missing + "\"],\"codes\":[\"ABC123\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.byId", hasSize(2)))
+                .andExpect(jsonPath("$.byId[0].coupon.code", is("ABC123")))
+                .andExpect(jsonPath("$.byId[1].found", is(false)))
+                .andExpect(jsonPath("$.byCode[0].found", is(true)));
+    }
+
 }
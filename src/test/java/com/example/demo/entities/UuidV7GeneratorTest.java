@@ -0,0 +1,47 @@
+package com.example.demo.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldCarryVersionSevenVariantAndCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // A burst of more than 4096 ids per millisecond borrows from the next milliseconds, hence the slack
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    void shouldBeStrictlyIncreasingWithinTheSameMillisecond() {
+        UUID previous = UuidV7Generator.next();
+
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.next();
+            // Databases order UUIDs as unsigned 128-bit values; the high half alone must grow
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldPlaceLowerBoundAtOrBelowEveryLaterId() {
+        long millis = System.currentTimeMillis();
+        UUID bound = UuidV7Generator.lowerBound(millis);
+
+        assertThat(bound.version()).isEqualTo(7);
+        assertThat(Long.compareUnsigned(UuidV7Generator.next().getMostSignificantBits(), bound.getMostSignificantBits()))
+                .isPositive();
+        assertThat(Long.compareUnsigned(UuidV7Generator.lowerBound(millis - 1).getMostSignificantBits(),
+                bound.getMostSignificantBits())).isNegative();
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.demo.idempotency;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.entities.IdempotencyRecordEntity;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.IdempotencyKeyInFlightException;
+import com.example.demo.exceptions.IdempotencyKeyReusedException;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final UUID ID = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private IdempotencyService idempotencyService;
+
+    private CouponDTO request;
+
+    @BeforeEach
+    void setup() {
+        idempotencyService = new IdempotencyService(repository, objectMapper, 100, Duration.ofHours(1), false, Duration.ofMinutes(1));
+        request = new CouponDTO("ABC123", "Cupom de teste", new BigDecimal("10.0"), Instant.now().plus(1, ChronoUnit.DAYS), false);
+    }
+
+    @Test
+    void shouldReplayFirstResponseWithoutRunningAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<CouponResponse> first = idempotencyService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+        ResponseEntity<CouponResponse> retry = idempotencyService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("create", "key-1", request, CouponResponse.class, () -> created(calls));
+
+        request.setCode("XYZ789");
+
+        assertThatThrownBy(() -> idempotencyService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls)))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunAgainAfterFailure() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> idempotencyService.execute("create", "key-1", request, CouponResponse.class, () -> {
+            calls.incrementAndGet();
+            throw new BusinessException("boom");
+        })).isInstanceOf(BusinessException.class);
+
+        ResponseEntity<CouponResponse> retry = idempotencyService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(retry.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void shouldCollapseConcurrentDuplicates() throws Exception {
+        int parallel = 16;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallel);
+        try {
+            List<Future<ResponseEntity<Void>>> futures = new ArrayList<>();
+            for (int i = 0; i < parallel; i++) {
+                futures.add(executor.submit(() -> idempotencyService.execute("redeem", "key-1", ID, Void.class, () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.noContent().build();
+                })));
+            }
+
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<ResponseEntity<Void>> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReturnConflictWhileAnotherInstanceHoldsTheKey() throws Exception {
+        IdempotencyService jdbcService = jdbcService();
+        when(repository.claim(eq("create:key-1"), anyString(), any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById("create:key-1")).thenReturn(Optional.of(new IdempotencyRecordEntity("create:key-1",
+                fingerprintOf(request), IdempotencyRecordEntity.IN_FLIGHT, null, Instant.now())));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> jdbcService.execute("create", "key-1", request, CouponResponse.class, () -> created(calls)))
+                .isInstanceOf(IdempotencyKeyInFlightException.class);
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    void shouldReplayResponseStoredByAnotherInstance() throws Exception {
+        IdempotencyService jdbcService = jdbcService();
+        when(repository.claim(eq("create:key-1"), anyString(), any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findById("create:key-1")).thenReturn(Optional.of(new IdempotencyRecordEntity("create:key-1",
+                fingerprintOf(request), 201, "{\"id\":\"" + ID + "\",\"code\":\"ABC123\"}", Instant.now())));
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<CouponResponse> replayed = jdbcService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+
+        assertThat(calls.get()).isZero();
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody().getId()).isEqualTo(ID);
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void shouldKeepSuccessfulResponseWhenStoringItFails() {
+        IdempotencyService jdbcService = jdbcService();
+        when(repository.complete(eq("create:key-1"), eq(201), anyString())).thenThrow(new DataAccessResourceFailureException("down"));
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<CouponResponse> response = jdbcService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+        ResponseEntity<CouponResponse> retry = jdbcService.execute("create", "key-1", request, CouponResponse.class,
+                () -> created(calls));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody().getId()).isEqualTo(response.getBody().getId());
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseClaimWhenOperationFails() {
+        IdempotencyService jdbcService = jdbcService();
+
+        assertThatThrownBy(() -> jdbcService.execute("create", "key-1", request, CouponResponse.class, () -> {
+            throw new BusinessException("boom");
+        })).isInstanceOf(BusinessException.class);
+
+        verify(repository).release("create:key-1");
+        verify(repository, never()).complete(anyString(), anyInt(), any());
+    }
+
+    private IdempotencyService jdbcService() {
+        return new IdempotencyService(repository, objectMapper, 100, Duration.ofHours(1), true, Duration.ofMinutes(1));
+    }
+
+    private String fingerprintOf(Object body) throws Exception {
+        return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(body));
+    }
+
+    private ResponseEntity<CouponResponse> created(AtomicInteger calls) {
+        calls.incrementAndGet();
+        CouponResponse response = new CouponResponse();
+        response.setId(UUID.randomUUID());
+        response.setCode(request.getCode());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
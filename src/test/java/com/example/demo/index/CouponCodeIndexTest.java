@@ -0,0 +1,152 @@
+package com.example.demo.index;
+
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.repository.LiveCodeRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponCodeIndexTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    @Test
+    void shouldEncodeEveryCodeToADistinctNonZeroKey() {
+        assertThat(CouponCodeIndex.encode("000000")).isEqualTo(1);
+        assertThat(CouponCodeIndex.encode("zzzzzz")).isEqualTo(56_800_235_584L);
+        assertThat(CouponCodeIndex.encode("ABC123")).isNotEqualTo(CouponCodeIndex.encode("abc123"));
+        assertThat(CouponCodeIndex.encode("ABC12")).isEqualTo(-1);
+        assertThat(CouponCodeIndex.encode("ABC12!")).isEqualTo(-1);
+
+        Random random = new Random(24);
+        Set<String> codes = new HashSet<>();
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            String code = randomCode(random);
+            if (codes.add(code)) {
+                assertThat(keys.add(CouponCodeIndex.encode(code))).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectNothingUntilLoaded() {
+        CouponCodeIndex index = new CouponCodeIndex(true, 16);
+
+        assertThat(index.mayExist("NOPE00")).isTrue();
+
+        index.load(Stream.of(new LiveCodeRow("ABC123", UUID.randomUUID(), CouponStatusEnum.ACTIVE, Instant.now())));
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.mayExist("ABC123")).isTrue();
+        assertThat(index.mayExist("NOPE00")).isFalse();
+    }
+
+    @Test
+    void shouldTrackCreatesAndDeletesAfterLoad() {
+        CouponCodeIndex index = new CouponCodeIndex(true, 16);
+        index.load(Stream.empty());
+        UUID id = UUID.randomUUID();
+
+        index.add(id, "NEW001", CouponStatusEnum.INACTIVE);
+        assertThat(index.mayExist("NEW001")).isTrue();
+        assertThat(index.idOf("NEW001")).isEqualTo(id);
+        assertThat(index.statusOf("NEW001")).isEqualTo(CouponStatusEnum.INACTIVE);
+
+        index.markDeleted("NEW001");
+        assertThat(index.mayExist("NEW001")).isFalse();
+
+        // The code is free again once deleted; a new coupon takes over the slot
+        UUID reused = UUID.randomUUID();
+        index.add(reused, "NEW001", CouponStatusEnum.ACTIVE);
+        assertThat(index.mayExist("NEW001")).isTrue();
+        assertThat(index.idOf("NEW001")).isEqualTo(reused);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGrowPastTheExpectedSize() {
+        CouponCodeIndex index = new CouponCodeIndex(true, 16);
+        Random random = new Random(7);
+        List<LiveCodeRow> rows = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        while (rows.size() < 50_000) {
+            String code = randomCode(random);
+            if (seen.add(code)) {
+                rows.add(new LiveCodeRow(code, UUID.randomUUID(), CouponStatusEnum.ACTIVE, Instant.now()));
+            }
+        }
+
+        index.load(rows.stream());
+
+        assertThat(index.size()).isEqualTo(rows.size());
+        for (LiveCodeRow row : rows) {
+            assertThat(index.idOf(row.code())).isEqualTo(row.id());
+        }
+        // 25 bytes per slot at a load factor of at most 0.75, then doubling
+        assertThat(index.memoryBytes()).isLessThan(rows.size() * 25L * 3);
+    }
+
+    @Test
+    void shouldAnswerReadersWhileWritersGrowTheTable() throws Exception {
+        CouponCodeIndex index = new CouponCodeIndex(true, 16);
+        index.load(Stream.of(new LiveCodeRow("STABLE", UUID.randomUUID(), CouponStatusEnum.ACTIVE, Instant.now())));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> IntStream.range(0, 200_000)
+                    .forEach(i -> index.add(UUID.randomUUID(), String.format("W%05d", i), CouponStatusEnum.ACTIVE)));
+            List<Future<Boolean>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!writer.isDone()) {
+                        if (!index.mayExist("STABLE") || index.mayExist("ABSENT")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            writer.get();
+            for (Future<Boolean> reader : readers) {
+                assertThat(reader.get()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(index.size()).isEqualTo(200_001);
+    }
+
+    @Test
+    void shouldAcceptEverythingWhenDisabled() {
+        CouponCodeIndex index = new CouponCodeIndex(false, 16);
+        index.load(Stream.empty());
+        index.add(UUID.randomUUID(), "ABC123", CouponStatusEnum.ACTIVE);
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.mayExist("NOPE00")).isTrue();
+        assertThat(index.size()).isZero();
+    }
+
+    private static String randomCode(Random random) {
+        char[] code = new char[6];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(code);
+    }
+}
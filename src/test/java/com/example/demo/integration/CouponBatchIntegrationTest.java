@@ -0,0 +1,113 @@
+package com.example.demo.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest(properties = "coupon.batch.chunk-size=2")
+@AutoConfigureMockMvc
+class CouponBatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldCreateNdjsonBatchWithPerItemResults() throws Exception {
+
+        String body = """
+        {"code": "BAT-001", "description": "Lote 1", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z", "published": true}
+        {"code": "BAT-002", "description": "Lote 2", "discountValue": 0.1, "expirationDate": "2099-01-01T00:00:00Z"}
+        {"code": "BAT#001", "description": "Lote 3", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+        {"code": "BAT-003", "description": "", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+        {"code": "BAT-004", "description": "Lote 5", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+        """;
+
+        List<JsonNode> results = batch(MediaType.APPLICATION_NDJSON, body);
+
+        // Chunks of 2 items: the lines still come back one per item, in request order
+        assertThat(results).extracting(node -> node.get("index").asInt()).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).extracting(node -> node.get("status").asText())
+                .containsExactly("CREATED", "INVALID", "DUPLICATE", "INVALID", "CREATED");
+        assertThat(results.get(0).get("code").asText()).isEqualTo("BAT001");
+        assertThat(results.get(4).get("id").asText()).isNotBlank();
+
+
+        mockMvc.perform(get("/coupon/code/{code}", "BAT001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.published").value(true));
+    }
+
+    @Test
+    void shouldFallBackToRowByRowWhenChunkHitsExistingCode() throws Exception {
+
+        assertThat(batch(MediaType.APPLICATION_JSON, """
+                [{"code": "BAT-100", "description": "Existente", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}]
+                """)).extracting(node -> node.get("status").asText()).containsExactly("CREATED");
+
+
+        List<JsonNode> results = batch(MediaType.APPLICATION_JSON, """
+                [
+                  {"code": "BAT-101", "description": "Novo", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"},
+                  {"code": "BAT-100", "description": "Repetido", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                ]
+                """);
+
+        assertThat(results).extracting(node -> node.get("status").asText()).containsExactly("CREATED", "DUPLICATE");
+
+        mockMvc.perform(get("/coupon/code/{code}", "BAT101"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldEndWithErrorLineOnMalformedItem() throws Exception {
+
+        List<JsonNode> results = batch(MediaType.APPLICATION_NDJSON, """
+                {"code": "BAT-200", "description": "Antes", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                {"code": "BAT-201", "description":
+                """);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+        assertThat(results.get(1).get("error").asText()).startsWith("Invalid batch payload at item 1");
+        assertThat(results.get(1).get("created").asInt()).isEqualTo(1);
+    }
+
+    private List<JsonNode> batch(MediaType contentType, String body) throws Exception {
+        MvcResult started = mockMvc.perform(post("/coupon/batch")
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.index.CouponCodeIndexLoader;
+import com.example.demo.service.CouponBatchService;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+@SpringBootTest(properties = "coupon.code-index.enabled=true")
+class CouponCodeIndexIntegrationTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponBatchService batchService;
+
+    @Autowired
+    private CouponCodeIndex codeIndex;
+
+    @Autowired
+    private CouponCodeIndexLoader loader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldRejectUnknownCodesAndFollowCreatesAndDeletes() {
+        assertThat(codeIndex.isReady()).isTrue();
+
+        CouponResponse created = couponService.create(new CouponDTO("IDX001", "Indice", new BigDecimal("1.0"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true));
+
+        // Loaded at startup; unknown codes never reach the database
+        assertThat(codeIndex.mayExist("IDX999")).isFalse();
+        assertThatThrownBy(() -> couponService.findByCode("IDX999")).isInstanceOf(CouponNotFoundException.class);
+        assertThatThrownBy(() -> couponService.redeemByCode("IDX999")).isInstanceOf(CouponNotFoundException.class);
+
+        couponService.redeemByCode("IDX001");
+        assertThat(couponService.findById(created.getId()).getRedeemed()).isTrue();
+
+        couponService.delete(created.getId());
+        assertThat(codeIndex.mayExist("IDX001")).isFalse();
+    }
+
+    @Test
+    void shouldPickUpRowsOfOtherNodesAndHealMissedOnesOnFullReload() {
+        // Written by "another node": only the refresh can bring it in
+        insertElsewhere("IDX101", null);
+        loader.refresh();
+        assertThat(codeIndex.mayExist("IDX101")).isTrue();
+
+        // Committed long after its insert time, behind the watermark: the refresh misses it, the reload does not
+        insertElsewhere("IDX102", OffsetDateTime.now(ZoneOffset.UTC).minusHours(1));
+        loader.refresh();
+        assertThat(codeIndex.mayExist("IDX102")).isFalse();
+
+        loader.reload();
+        assertThat(codeIndex.mayExist("IDX102")).isTrue();
+        assertThat(couponService.findByCode("IDX102").getCode()).isEqualTo("IDX102");
+    }
+
+    @Test
+    void shouldReleaseCodesOfUncachedCouponsOnDelete() {
+        UUID single = insertElsewhere("IDX201", null);
+        UUID first = insertElsewhere("IDX202", null);
+        UUID second = insertElsewhere("IDX203", null);
+        loader.refresh();
+
+        // Never read, so none of them is cached: the released codes come from the delete itself
+        couponService.delete(single);
+        assertThat(batchService.bulkDelete(new BulkDeleteRequest(List.of(first, second), null)).getDeleted()).isEqualTo(2);
+
+        assertThat(codeIndex.mayExist("IDX201")).isFalse();
+        assertThat(codeIndex.mayExist("IDX202")).isFalse();
+        assertThat(codeIndex.mayExist("IDX203")).isFalse();
+    }
+
+    private UUID insertElsewhere(String code, OffsetDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                        INSERT INTO coupons (id, code, live_code, description, discount_value, expiration_date,
+                                             status, published, redeemed, allocated_uses, redemption_count)
+                        VALUES (?, ?, ?, 'Outro no', 1.00, ?, 'ACTIVE', TRUE, FALSE, 0, 0)
+                        """,
+                id, code, code, OffsetDateTime.now(ZoneOffset.UTC).plusDays(1));
+        if (createdAt != null) {
+            jdbcTemplate.update("UPDATE coupons SET created_at = ? WHERE live_code = ?", createdAt, code);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.integration;
+
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.scheduler.CouponExpirationSweeper;
+import com.example.demo.scheduler.SweepResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest(properties = "coupon.expiration-sweeper.chunk-size=2")
+class CouponExpirationSweeperTest {
+
+    @Autowired
+    private CouponExpirationSweeper sweeper;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Test
+    void shouldMoveExpiredActiveCouponsToInactiveInChunks() {
+        List<UUID> expired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expired.add(save("SWP00" + i, Instant.now().minus(1, ChronoUnit.HOURS)).getId());
+        }
+        UUID stillValid = save("SWP100", Instant.now().plus(1, ChronoUnit.DAYS)).getId();
+
+        SweepResult result = sweeper.sweep();
+
+        assertThat(result.getElapsed()).isNotNull();
+        assertThat(sweeper.getLastRun()).isSameAs(result);
+        assertThat(couponRepository.findAllById(expired))
+                .extracting(CouponEntity::getStatus)
+                .containsOnly(CouponStatusEnum.INACTIVE);
+        assertThat(couponRepository.findById(stillValid).orElseThrow().getStatus())
+                .isEqualTo(CouponStatusEnum.ACTIVE);
+    }
+
+    private CouponEntity save(String code, Instant expiration) {
+        CouponEntity entity = new CouponEntity();
+        entity.setCode(code);
+        entity.setDescription("Varredura");
+        entity.setDiscountValue(new BigDecimal("1.0"));
+        entity.setExpirationDate(expiration);
+        entity.setStatus(CouponStatusEnum.ACTIVE);
+        entity.setPublished(true);
+        entity.setRedeemed(false);
+        return couponRepository.save(entity);
+    }
+}
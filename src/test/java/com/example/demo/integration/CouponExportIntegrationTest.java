@@ -0,0 +1,79 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CouponExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Test
+    void shouldStreamFilteredCouponsAsCsv() throws Exception {
+        Instant expiration = Instant.parse("2097-03-03T00:00:00Z");
+        couponService.create(new CouponDTO("EXP001", "Exportação, com vírgula", new BigDecimal("1.0"), expiration, true));
+        couponService.create(new CouponDTO("EXP002", "Exportação simples", new BigDecimal("2.0"), expiration, true));
+
+        MvcResult started = mockMvc.perform(get("/coupon/export")
+                        .param("format", "CSV")
+                        .param("expiresAfter", "2097-03-02T00:00:00Z")
+                        .param("expiresBefore", "2097-03-04T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,code,description,discountValue,expirationDate,status,published,redeemed");
+        assertThat(body).contains(",EXP001,\"Exportação, com vírgula\",1.00,2097-03-03T00:00:00Z,ACTIVE,true,false");
+        assertThat(body).contains(",EXP002,Exportação simples,2.00,");
+    }
+
+    @Test
+    void shouldStreamCouponsAsNdjson() throws Exception {
+        Instant expiration = Instant.parse("2097-04-04T00:00:00Z");
+        couponService.create(new CouponDTO("EXP003", "NDJSON", new BigDecimal("1.0"), expiration, false));
+
+        MvcResult started = mockMvc.perform(get("/coupon/export")
+                        .param("format", "NDJSON")
+                        .param("expiresAfter", "2097-04-03T00:00:00Z")
+                        .param("expiresBefore", "2097-04-05T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body.split("\n")).hasSize(1);
+        assertThat(body).contains("\"code\":\"EXP003\"");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest(properties = "coupon.batch.chunk-size=10")
+@AutoConfigureMockMvc
+class CouponGenerateIntegrationTest {
+
+    private static final String TEMPLATE = """
+            {
+              "description": "Campanha gerada",
+              "discountValue": 2.5,
+              "expirationDate": "2099-01-01T00:00:00Z",
+              "published": true
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldStreamUniqueGeneratedCodes() throws Exception {
+
+        MvcResult started = mockMvc.perform(post("/coupon/generate")
+                        .param("count", "35")
+                        .param("prefix", "GN")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TEMPLATE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Set<String> codes = new HashSet<>();
+        for (String line : body.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            codes.add(node.get("code").asText());
+        }
+
+        assertThat(codes).hasSize(35);
+        assertThat(codes).allMatch(code -> code.matches("GN[A-Za-z0-9]{4}"));
+
+
+        mockMvc.perform(get("/coupon/code/{code}", codes.iterator().next()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Campanha gerada"));
+    }
+
+    @Test
+    void shouldReturn400WhenPrefixIsTooLong() throws Exception {
+        mockMvc.perform(post("/coupon/generate")
+                        .param("count", "1")
+                        .param("prefix", "ABCDEF")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TEMPLATE))
+                .andExpect(status().isBadRequest());
+    }
+}
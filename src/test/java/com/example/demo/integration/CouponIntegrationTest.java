@@ -75,4 +75,138 @@ class CouponIntegrationTest {
         mockMvc.perform(get("/coupon/{id}", id))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void shouldRejectDuplicateLiveCodeAndReleaseItAfterDelete() throws Exception {
+
+        String createBody = """
+        {
+          "code": "DUP-777",
+          "description": "Cupom duplicado",
+          "discountValue": 1.0,
+          "expirationDate": "2099-11-04T17:14:45.180Z",
+          "published": true
+        }
+        """;
+
+        String createdJson = mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = objectMapper.readTree(createdJson).get("id").asText();
+
+
+        mockMvc.perform(get("/coupon/code/{code}", "DUP777"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+
+
+        mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isConflict());
+
+
+        mockMvc.perform(delete("/coupon/{id}", id))
+                .andExpect(status().isNoContent());
+
+
+        mockMvc.perform(get("/coupon/code/{code}", "DUP777"))
+                .andExpect(status().isNotFound());
+
+
+        mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void shouldBulkSoftDeleteByIds() throws Exception {
+
+        String first = objectMapper.readTree(mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"code": "BLK-001", "description": "Bulk", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                        """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asText();
+
+        String second = objectMapper.readTree(mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                        {"code": "BLK-002", "description": "Bulk", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                        """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asText();
+
+
+        mockMvc.perform(delete("/coupon/{id}", first))
+                .andExpect(status().isNoContent());
+
+
+        mockMvc.perform(delete("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [\"" + first + "\", \"" + second + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+
+
+        mockMvc.perform(get("/coupon/{id}", second))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReplayCreateAndRedeemForRepeatedIdempotencyKey() throws Exception {
+
+        String createBody = """
+        {
+          "code": "IDM-001",
+          "description": "Cupom idempotente",
+          "discountValue": 1.0,
+          "expirationDate": "2099-11-04T17:14:45.180Z",
+          "published": true
+        }
+        """;
+
+        String firstJson = mockMvc.perform(post("/coupon")
+                        .header("Idempotency-Key", "create-idm-001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String id = objectMapper.readTree(firstJson).get("id").asText();
+
+
+        mockMvc.perform(post("/coupon")
+                        .header("Idempotency-Key", "create-idm-001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id));
+
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id)
+                        .header("Idempotency-Key", "redeem-idm-001"))
+                .andExpect(status().isNoContent());
+
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id)
+                        .header("Idempotency-Key", "redeem-idm-001"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id))
+                .andExpect(status().isConflict());
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponPageResponse;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest
+class CouponListIntegrationTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Test
+    void shouldWalkAllPagesWithKeysetCursor() {
+        Instant expiration = Instant.parse("2098-02-02T00:00:00Z");
+        List<UUID> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CouponResponse coupon = couponService.create(new CouponDTO("LST00" + i, "Listagem", new BigDecimal("1.0"), expiration, true));
+            created.add(coupon.getId());
+        }
+        couponService.delete(created.get(4));
+
+        CouponFilter filter = new CouponFilter();
+        filter.setPublished(true);
+        filter.setExpiresAfter(Instant.parse("2098-02-01T00:00:00Z"));
+        filter.setExpiresBefore(Instant.parse("2098-02-03T00:00:00Z"));
+
+        List<UUID> seen = new ArrayList<>();
+        UUID cursor = null;
+        int pages = 0;
+        do {
+            CouponPageResponse page = couponService.list(filter, cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(created.subList(0, 4));
+        assertThat(seen).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponLookupItem;
+import com.example.demo.dto.CouponLookupRequest;
+import com.example.demo.dto.CouponLookupResponse;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.service.CouponLookupService;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest(properties = "coupon.batch.chunk-size=2")
+class CouponLookupIntegrationTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponLookupService lookupService;
+
+    @Test
+    void shouldAnswerIdsAndCodesInRequestOrder() {
+        Instant expiration = Instant.now().plus(1, ChronoUnit.DAYS);
+        CouponResponse first = couponService.create(new CouponDTO("LKP001", "Busca", new BigDecimal("1.0"), expiration, true));
+        CouponResponse second = couponService.create(new CouponDTO("LKP002", "Busca", new BigDecimal("2.0"), expiration, true));
+        CouponResponse third = couponService.create(new CouponDTO("LKP003", "Busca", new BigDecimal("3.0"), expiration, true));
+        CouponResponse deleted = couponService.create(new CouponDTO("LKP004", "Busca", new BigDecimal("4.0"), expiration, true));
+        couponService.delete(deleted.getId());
+        // Only LKP001 starts in the cache; the rest come from chunked IN queries
+        couponService.findById(first.getId());
+
+        UUID missing = UUID.fromString("00000000-0000-0000-0000-00000000abcd");
+        CouponLookupResponse response = lookupService.lookup(new CouponLookupRequest(
+                List.of(third.getId(), missing, first.getId(), deleted.getId(), second.getId()),
+                List.of("LKP002", "LKP004", "LKP-9-9-9", "LKP001")));
+
+        assertThat(response.getById()).extracting(CouponLookupItem::getId)
+                .containsExactly(third.getId(), missing, first.getId(), deleted.getId(), second.getId());
+        assertThat(response.getById()).extracting(CouponLookupItem::isFound)
+                .containsExactly(true, false, true, false, true);
+        assertThat(response.getById().get(0).getCoupon().getCode()).isEqualTo("LKP003");
+
+        assertThat(response.getByCode()).extracting(CouponLookupItem::isFound)
+                .containsExactly(true, false, false, true);
+        assertThat(response.getByCode().get(0).getCoupon().getId()).isEqualTo(second.getId());
+        assertThat(response.getByCode().get(2).getReason()).isEqualTo("Coupon not found");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class CouponMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldExposeServicePoolHibernateAndCacheMetrics() throws Exception {
+        String createBody = """
+        {
+          "code": "MET001",
+          "description": "Cupom de métricas",
+          "discountValue": 5.0,
+          "expirationDate": "%s",
+          "published": true
+        }
+        """.formatted(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        String createdJson = mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String id = objectMapper.readTree(createdJson).get("id").asText();
+
+        mockMvc.perform(get("/coupon/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(delete("/coupon/{id}", id)).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/coupon/{id}", id)).andExpect(status().isConflict());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(scrape)
+                .contains("coupon_operations_seconds_count")
+                .contains("operation=\"delete\",outcome=\"already_deleted\"")
+                .contains("spring_data_repository_invocations_seconds_count")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_")
+                .contains("cache_gets_total{application=\"coupon api\",cache=\"coupon.byId\"");
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.outbox.CouponEvent;
+import com.example.demo.outbox.InMemoryOutboxSink;
+import com.example.demo.outbox.OutboxRelay;
+import com.example.demo.quota.CouponQuotaManager;
+import com.example.demo.repository.CouponOutboxRepository;
+import com.example.demo.service.CouponBatchService;
+import com.example.demo.service.CouponService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+@SpringBootTest(properties = {"coupon.outbox.enabled=true", "coupon.outbox.relay.enabled=true", "coupon.outbox.sink=memory",
+        "coupon.quota.reconcile-interval-ms=3600000"})
+class CouponOutboxIntegrationTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponQuotaManager quotaManager;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private CouponBatchService batchService;
+
+    @Autowired
+    private CouponOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldPublishCouponChangesInOrder() throws Exception {
+        CouponResponse created = couponService.create(new CouponDTO("OBX001", "Outbox", new BigDecimal("2.50"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true));
+
+        couponService.redeemByCode("OBX001");
+        // A refused redemption changes nothing and writes no event
+        assertThatThrownBy(() -> couponService.redeem(created.getId())).isInstanceOf(CouponAlreadyRedeemedException.class);
+        couponService.delete(created.getId());
+
+        List<CouponEvent> events = eventsOf(created.getId());
+
+        assertThat(events).extracting(CouponEvent::getType).containsExactly(
+                CouponEventTypeEnum.CREATED, CouponEventTypeEnum.REDEEMED, CouponEventTypeEnum.DELETED);
+        assertThat(events).extracting(CouponEvent::getId).isSorted();
+        assertThat(events).extracting(CouponEvent::getCode).containsOnly("OBX001");
+        assertThat(objectMapper.readTree(events.get(0).getPayload()).get("discountValue").decimalValue())
+                .isEqualByComparingTo("2.50");
+        assertThat(objectMapper.readTree(events.get(1).getPayload()).get("count").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPublishMultiUseRedemptionsPerReconcile() throws Exception {
+        CouponDTO request = new CouponDTO("OBX002", "Outbox multiuso", new BigDecimal("1.00"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true);
+        request.setMaxUses(5);
+        CouponResponse created = couponService.create(request);
+
+        couponService.redeem(created.getId(), "customer-a");
+        couponService.redeem(created.getId(), "customer-b");
+        quotaManager.reconcile();
+
+        List<CouponEvent> events = eventsOf(created.getId());
+
+        assertThat(events.get(0).getType()).isEqualTo(CouponEventTypeEnum.CREATED);
+        int redeemed = 0;
+        for (CouponEvent event : events.subList(1, events.size())) {
+            assertThat(event.getType()).isEqualTo(CouponEventTypeEnum.REDEEMED);
+            redeemed += objectMapper.readTree(event.getPayload()).get("count").asInt();
+        }
+        assertThat(redeemed).isEqualTo(2);
+    }
+
+    @Test
+    void shouldAppendCreatedEventsOfBatchChunk() throws Exception {
+        String body = """
+                {"code": "OBX010", "description": "Lote", "discountValue": 1.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                {"code": "OBX011", "description": "Lote", "discountValue": 3.0, "expirationDate": "2099-01-01T00:00:00Z"}
+                """;
+        batchService.createBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), new ByteArrayOutputStream());
+
+        List<CouponEvent> events = events().stream()
+                .filter(event -> event.getCode() != null && event.getCode().startsWith("OBX01"))
+                .toList();
+
+        assertThat(events).extracting(CouponEvent::getType).containsOnly(CouponEventTypeEnum.CREATED);
+        assertThat(events).extracting(CouponEvent::getCode).containsExactlyInAnyOrder("OBX010", "OBX011");
+        for (CouponEvent event : events) {
+            assertThat(objectMapper.readTree(event.getPayload()).get("id").asText()).isEqualTo(event.getCouponId().toString());
+        }
+    }
+
+    @Test
+    void shouldNotRepeatDeletedEventOnBulkDelete() {
+        CouponResponse first = couponService.create(new CouponDTO("OBX020", "Outbox", new BigDecimal("1.00"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true));
+        CouponResponse second = couponService.create(new CouponDTO("OBX021", "Outbox", new BigDecimal("1.00"),
+                Instant.now().plus(1, ChronoUnit.DAYS), true));
+        couponService.delete(first.getId());
+
+        assertThat(batchService.bulkDelete(new BulkDeleteRequest(List.of(first.getId(), second.getId()), null))
+                .getDeleted()).isEqualTo(1);
+
+        List<CouponEvent> events = events();
+        assertThat(events).filteredOn(event -> first.getId().equals(event.getCouponId()))
+                .extracting(CouponEvent::getType)
+                .containsExactly(CouponEventTypeEnum.CREATED, CouponEventTypeEnum.DELETED);
+        assertThat(events).filteredOn(event -> second.getId().equals(event.getCouponId()))
+                .extracting(CouponEvent::getType)
+                .containsExactly(CouponEventTypeEnum.CREATED, CouponEventTypeEnum.DELETED);
+    }
+
+    private List<CouponEvent> eventsOf(UUID couponId) {
+        return events().stream().filter(event -> couponId.equals(event.getCouponId())).toList();
+    }
+
+    // The scheduled relay may have published part of the events already; all of them end up in the same queue
+    private List<CouponEvent> events() {
+        relay.relay();
+        assertThat(outboxRepository.count()).isZero();
+
+        List<CouponEvent> received = new ArrayList<>();
+        sink.queue().drainTo(received);
+        return received;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest
+class CouponRedeemConcurrencyTest {
+
+    private static final int PARALLEL_REDEMPTIONS = 64;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Test
+    void shouldRedeemExactlyOnceUnderParallelRequests() throws Exception {
+        CouponResponse coupon = couponService.create(new CouponDTO(
+                "RDM-001", "Cupom concorrente", new BigDecimal("5.0"), Instant.now().plus(1, ChronoUnit.DAYS), true));
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REDEMPTIONS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_REDEMPTIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        couponService.redeem(coupon.getId());
+                        succeeded.incrementAndGet();
+                    } catch (CouponAlreadyRedeemedException ex) {
+                        conflicted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(succeeded.get()).isEqualTo(1);
+        assertThat(conflicted.get()).isEqualTo(PARALLEL_REDEMPTIONS - 1);
+        assertThat(couponRepository.findById(coupon.getId()).orElseThrow().getRedeemed()).isTrue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.integration;
+
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.quota.CouponQuotaManager;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.service.MultiUseRedemptionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MultiUseCouponIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponQuotaManager quotaManager;
+
+    @Test
+    void shouldEnforcePerCustomerAndTotalLimits() throws Exception {
+        String createBody = """
+        {
+          "code": "MLT-001",
+          "description": "Cupom multiuso",
+          "discountValue": 5.0,
+          "expirationDate": "%s",
+          "published": true,
+          "maxUses": 3,
+          "maxUsesPerCustomer": 2
+        }
+        """.formatted(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        String createdJson = mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.maxUses").value(3))
+                .andExpect(jsonPath("$.maxUsesPerCustomer").value(2))
+                .andExpect(jsonPath("$.redemptionCount").value(0))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        UUID id = UUID.fromString(objectMapper.readTree(createdJson).get("id").asText());
+
+        mockMvc.perform(post("/coupon/{id}/redeem", id))
+                .andExpect(status().isBadRequest());
+
+        redeem(id, "customer-a").andExpect(status().isNoContent());
+        mockMvc.perform(post("/coupon/code/{code}/redeem", "MLT001")
+                        .header(MultiUseRedemptionService.CUSTOMER_HEADER, "customer-a"))
+                .andExpect(status().isNoContent());
+        redeem(id, "customer-a").andExpect(status().isConflict());
+
+        redeem(id, "customer-b").andExpect(status().isNoContent());
+        redeem(id, "customer-c").andExpect(status().isConflict());
+
+        quotaManager.reconcile();
+
+        CouponEntity coupon = couponRepository.findById(id).orElseThrow();
+        assertThat(coupon.getRedemptionCount()).isEqualTo(3);
+        assertThat(coupon.getAllocatedUses()).isEqualTo(3);
+        assertThat(coupon.getRedeemed()).isTrue();
+    }
+
+    @Test
+    void shouldRejectPerCustomerLimitWithoutTotal() throws Exception {
+        String createBody = """
+        {
+          "code": "MLT-002",
+          "description": "Cupom multiuso",
+          "discountValue": 5.0,
+          "expirationDate": "%s",
+          "published": true,
+          "maxUsesPerCustomer": 2
+        }
+        """.formatted(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        mockMvc.perform(post("/coupon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions redeem(UUID id, String customerId) throws Exception {
+        return mockMvc.perform(post("/coupon/{id}/redeem", id)
+                .header(MultiUseRedemptionService.CUSTOMER_HEADER, customerId));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Boots the prod profile on a throwaway database: Flyway builds the schema and ddl-auto=validate must accept it
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodschema")
+@ActiveProfiles("prod")
+class ProdProfileSchemaTest {
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldMigrateValidateAndServeCoupons() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = TRUE", Integer.class);
+        assertThat(applied).isPositive();
+
+        Integer indexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME IN "
+                        + "('IDX_COUPONS_STATUS_FLAGS_ID', 'IDX_COUPONS_STATUS_EXPIRATION')", Integer.class);
+        assertThat(indexes).isEqualTo(2);
+
+        CouponResponse created = couponService.create(new CouponDTO(
+                "PRD-001", "Cupom prod", new BigDecimal("5.0"), Instant.now().plus(1, ChronoUnit.DAYS), true));
+
+        assertThat(couponService.findById(created.getId()).getCode()).isEqualTo("PRD001");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+
+@SpringBootTest(properties = {
+        "coupon.rate-limit.permits-per-second=0.1",
+        "coupon.rate-limit.burst=2",
+        "coupon.rate-limit.api-keys=partner-a,partner-b"
+})
+@AutoConfigureMockMvc
+class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReturn429WithRetryAfterOncePartnerBurstIsSpent() throws Exception {
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "partner-a"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "partner-a"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "partner-a"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(content().string("Rate limit exceeded"));
+
+        // Other partners keep their own bucket
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "partner-b"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldLimitUnknownKeysByRemoteAddress() throws Exception {
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "random-1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "random-2"))
+                .andExpect(status().isOk());
+
+        // A fresh key does not buy a fresh bucket
+        mockMvc.perform(get("/coupon/cache/stats").header("X-API-Key", "random-3"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void shouldNotLimitActuatorEndpoints() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health").header("X-API-Key", "partner-c"))
+                    .andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.entities.CouponOutboxEntity;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.example.demo.repository.CouponOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// The web application type has to be inlined: the test bootstrapper does not read it from profile files
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "coupon.outbox.enabled=true"})
+@ActiveProfiles("reactive")
+class ReactiveCouponIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CouponOutboxRepository outboxRepository;
+
+    @Test
+    void shouldCreateFindRedeemThenDelete_onReactiveStack() {
+        CouponResponse created = webTestClient.post().uri("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body("RCT-001", true))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CouponResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(created).isNotNull();
+        assertThat(created.getCode()).isEqualTo("RCT001");
+
+        webTestClient.get().uri("/coupon/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("RCT001")
+                .jsonPath("$.status").isEqualTo("ACTIVE");
+
+        webTestClient.get().uri("/coupon/code/{code}", "rct-001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId().toString());
+
+        webTestClient.post().uri("/coupon/{id}/redeem", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.post().uri("/coupon/code/{code}/redeem", "RCT001")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.delete().uri("/coupon/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/coupon/{id}", created.getId())
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.get().uri("/coupon/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // Every change committed its outbox row; the refused redemption and second delete wrote none
+        assertThat(outboxRepository.findAll()).filteredOn(row -> created.getId().equals(row.getCouponId()))
+                .extracting(CouponOutboxEntity::getEventType)
+                .containsExactly(CouponEventTypeEnum.CREATED, CouponEventTypeEnum.REDEEMED, CouponEventTypeEnum.DELETED);
+    }
+
+    @Test
+    void shouldApplySameValidationAndErrorMapping_onReactiveStack() {
+        webTestClient.post().uri("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body("RCT-002", false))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post().uri("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body("RCT-002", false))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.post().uri("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body("R-1", false))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("code must have 6 alphanumeric characters after sanitization");
+
+        webTestClient.post().uri("/coupon")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"code\": \"RCT003\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.post().uri("/coupon/code/{code}/redeem", "RCT002")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Coupon is not published");
+
+        webTestClient.get().uri("/coupon/code/{code}", "ZZZ999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private String body(String code, boolean published) {
+        return """
+                {
+                  "code": "%s",
+                  "description": "Cupom reativo",
+                  "discountValue": 5.0,
+                  "expirationDate": "%s",
+                  "published": %s
+                }
+                """.formatted(code, Instant.now().plus(1, ChronoUnit.DAYS), published);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.integration;
+
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponResponse;
+import com.example.demo.service.CouponService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Primary and replica are two unrelated H2 databases, so every row tells which side served it
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary",
+        "coupon.datasource.replica.enabled=true",
+        "coupon.datasource.replica.url=" + ReadReplicaIntegrationTest.REPLICA_URL,
+        "coupon.datasource.replica.staleness=1m"})
+class ReadReplicaIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CouponService couponService;
+
+    @Test
+    void shouldServeCacheMissesFromTheReplicaAndOwnWritesFromThePrimary() {
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "admin", "123");
+        Flyway.configure().dataSource(replica).load().migrate();
+
+        UUID replicaOnlyId = UUID.randomUUID();
+        new JdbcTemplate(replica).update("""
+                        INSERT INTO coupons (id, code, live_code, description, discount_value,
+                                             expiration_date, status, published, redeemed)
+                        VALUES (?, 'RPL002', 'RPL002', 'Cupom replica', 5.0, ?, 'ACTIVE', TRUE, FALSE)
+                        """,
+                replicaOnlyId, OffsetDateTime.now(ZoneOffset.UTC).plusDays(1));
+
+        assertThat(couponService.findById(replicaOnlyId).getCode()).isEqualTo("RPL002");
+
+        // Never cached by id, so only the code finder running on the replica can see it
+        UUID replicaOnlyByCode = UUID.randomUUID();
+        new JdbcTemplate(replica).update("""
+                        INSERT INTO coupons (id, code, live_code, description, discount_value,
+                                             expiration_date, status, published, redeemed)
+                        VALUES (?, 'RPL003', 'RPL003', 'Cupom replica', 5.0, ?, 'ACTIVE', TRUE, FALSE)
+                        """,
+                replicaOnlyByCode, OffsetDateTime.now(ZoneOffset.UTC).plusDays(1));
+
+        assertThat(couponService.findByCode("RPL003").getId()).isEqualTo(replicaOnlyByCode);
+
+        // Not on the replica at all: only the read-your-writes window can find it
+        CouponResponse created = couponService.create(new CouponDTO(
+                "RPL-001", "Cupom primario", new BigDecimal("5.0"), Instant.now().plus(1, ChronoUnit.DAYS), true));
+
+        assertThat(couponService.findById(created.getId()).getCode()).isEqualTo("RPL001");
+        assertThat(couponService.findByCode("RPL001").getId()).isEqualTo(created.getId());
+    }
+}
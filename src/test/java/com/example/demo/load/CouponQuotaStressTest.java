@@ -0,0 +1,142 @@
+package com.example.demo.load;
+
+import com.example.demo.quota.CouponQuotaManager;
+import com.example.demo.quota.QuotaLedger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn -Pload-test test -Dtest=CouponQuotaStressTest [-Dload.duration-seconds=5]
+// Redemptions of one hot multi-use code, DB left out: what is measured is the node-local counting.
+@Tag("load")
+class CouponQuotaStressTest {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 3));
+
+    private final UUID couponId = UUID.randomUUID();
+
+    @Test
+    void shouldScaleRedemptionsWithCores() throws Exception {
+        // Warm-up so the JIT has compiled the acquire path before anything is measured
+        run(CORES, CORES, 1_000);
+
+        double single = run(1, CORES, DURATION.toMillis());
+        double striped = run(CORES, CORES, DURATION.toMillis());
+        double hotCounter = run(CORES, 1, DURATION.toMillis());
+
+        System.out.println();
+        System.out.printf("Multi-use redemptions, %d cores, %ds per run%n", CORES, DURATION.toSeconds());
+        System.out.printf("  1 thread,  %2d stripes: %,15.0f ops/s%n", CORES, single);
+        System.out.printf("%2d threads, %2d stripes: %,15.0f ops/s%n", CORES, CORES, striped);
+        System.out.printf("%2d threads,  1 stripe:  %,15.0f ops/s%n", CORES, hotCounter);
+
+        assertThat(striped).isGreaterThanOrEqualTo(hotCounter);
+        if (CORES >= 4) {
+            assertThat(striped).isGreaterThan(single * 2);
+        }
+    }
+
+    @Test
+    void shouldNeverExceedTheTotalUnderFullContention() throws Exception {
+        int maxUses = 1_000_000;
+        CountingLedger ledger = new CountingLedger(maxUses);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 256, CORES, 30);
+        AtomicInteger granted = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < CORES * 2; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                while (manager.tryAcquire(couponId)) {
+                    granted.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        manager.reconcile();
+
+        assertThat(granted.get()).isEqualTo(maxUses);
+        assertThat(ledger.allocated.get()).isEqualTo(maxUses);
+        assertThat(ledger.redeemed.sum()).isEqualTo(maxUses);
+    }
+
+    private double run(int threads, int stripes, long millis) throws InterruptedException {
+        CouponQuotaManager manager = new CouponQuotaManager(new CountingLedger(Integer.MAX_VALUE), 4096, stripes, 30);
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                long done = 0;
+                while ((done & 1023) != 0 || System.nanoTime() < deadline[0]) {
+                    manager.tryAcquire(couponId);
+                    done++;
+                }
+                operations.add(done);
+            }));
+        }
+
+        long begin = System.nanoTime();
+        deadline[0] = begin + Duration.ofMillis(millis).toNanos();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        return operations.sum() / seconds;
+    }
+
+    private static final class CountingLedger implements QuotaLedger {
+
+        final int maxUses;
+        final AtomicInteger allocated = new AtomicInteger();
+        final LongAdder redeemed = new LongAdder();
+
+        CountingLedger(int maxUses) {
+            this.maxUses = maxUses;
+        }
+
+        @Override
+        public int claim(UUID couponId, int units) {
+            while (true) {
+                int current = allocated.get();
+                int granted = (int) Math.min(units, (long) maxUses - current);
+                if (granted <= 0) {
+                    return 0;
+                }
+                if (allocated.compareAndSet(current, current + granted)) {
+                    return granted;
+                }
+            }
+        }
+
+        @Override
+        public void release(UUID couponId, int units) {
+            allocated.addAndGet(-units);
+        }
+
+        @Override
+        public void recordRedemptions(UUID couponId, int count) {
+            redeemed.add(count);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Closed-loop HTTP load: `concurrency` clients each send the next request as soon as the previous one answers
+final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    static Result run(String label, Supplier<HttpRequest> requests, int concurrency, Duration warmup, Duration duration)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        phase(client, requests, concurrency, warmup);
+        Samples samples = phase(client, requests, concurrency, duration);
+
+        long[] latencies = samples.latencies();
+        Arrays.sort(latencies);
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+
+        return new Result(label, latencies.length, samples.errors(), latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static Samples phase(HttpClient client, Supplier<HttpRequest> requests, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    Recorder recorder = new Recorder();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests.get(), HttpResponse.BodyHandlers.discarding());
+                            recorder.add(System.nanoTime() - start, response.statusCode() >= 400);
+                        } catch (IOException ex) {
+                            recorder.add(System.nanoTime() - start, true);
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+        }
+
+        long errors = 0;
+        int total = 0;
+        for (Future<Recorder> future : futures) {
+            total += future.get().size;
+            errors += future.get().errors;
+        }
+
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Future<Recorder> future : futures) {
+            Recorder recorder = future.get();
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+
+        return new Samples(latencies, errors);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000;
+    }
+
+    record Result(String label, long requests, long errors, double throughput, long p50Micros, long p99Micros) {
+
+        @Override
+        public String toString() {
+            return String.format("%-24s requests=%-9d errors=%-6d throughput=%10.1f req/s  p50=%8d us  p99=%8d us",
+                    label, requests, errors, throughput, p50Micros, p99Micros);
+        }
+    }
+
+    private record Samples(long[] latencies, long errors) {
+    }
+
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long nanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+    }
+}
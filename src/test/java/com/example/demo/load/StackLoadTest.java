@@ -0,0 +1,92 @@
+package com.example.demo.load;
+
+import com.example.demo.CouponApiApplication;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn -Pload-test test -Dtest=StackLoadTest [-Dload.concurrency=10000 -Dload.duration-seconds=20]
+@Tag("load")
+class StackLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 2000);
+    private static final int COUPONS = Integer.getInteger("load.coupons", 5000);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 15));
+
+    @Test
+    void shouldCompareServletAndReactiveStacks() throws Exception {
+        LoadGenerator.Result servlet = runStack(false);
+        LoadGenerator.Result reactive = runStack(true);
+
+        System.out.println();
+        System.out.println("Lookup by id, " + CONCURRENCY + " concurrent clients, " + DURATION.toSeconds() + "s, cache off");
+        System.out.println(servlet);
+        System.out.println(reactive);
+
+        assertThat(servlet.requests()).isPositive();
+        assertThat(reactive.requests()).isPositive();
+        assertThat(reactive.errors()).isZero();
+    }
+
+    private LoadGenerator.Result runStack(boolean reactive) throws Exception {
+        String stack = reactive ? "reactive" : "servlet";
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CouponApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + Integer.getInteger("load.tomcat-threads", 200),
+                        "spring.datasource.url=jdbc:h2:mem:load-" + stack,
+                        "spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("load.pool-size", 16),
+                        "spring.r2dbc.url=r2dbc:h2:mem:///load-" + stack,
+                        "spring.r2dbc.pool.max-size=" + Integer.getInteger("load.pool-size", 16),
+                        // Every lookup reaches the database so the comparison measures the stacks, not Caffeine
+                        "coupon.cache.maximum-size=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "coupon.expiration-sweeper.enabled=false",
+                        "coupon.rate-limit.enabled=false",
+                        "coupon.load-shedding.enabled=false",
+                        "logging.level.root=WARN");
+        if (reactive) {
+            builder.profiles("reactive");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            List<UUID> ids = seed(context.getBean(CouponService.class));
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port")
+                    + "/coupon/";
+
+            return LoadGenerator.run(stack + " stack",
+                    () -> HttpRequest.newBuilder(URI.create(
+                            baseUrl + ids.get(ThreadLocalRandom.current().nextInt(ids.size())))).GET().build(),
+                    CONCURRENCY, WARMUP, DURATION);
+        }
+    }
+
+    private List<UUID> seed(CouponService couponService) {
+        Instant expiration = Instant.now().plus(30, ChronoUnit.DAYS);
+        List<UUID> ids = new ArrayList<>(COUPONS);
+        for (int i = 0; i < COUPONS; i++) {
+            ids.add(couponService.create(new CouponDTO(String.format("ST%04d", i), "Carga", new BigDecimal("5.0"), expiration, true)).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.load;
+
+import com.example.demo.CouponApiApplication;
+import com.example.demo.dto.CouponDTO;
+import com.example.demo.service.CouponService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// mvn -Pload-test test -Dtest=ThreadingModeLoadTest [-Dload.concurrency=400 -Dload.duration-seconds=20]
+@Tag("load")
+class ThreadingModeLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 15));
+
+    @Test
+    void shouldComparePlatformAndVirtualThreadModes() throws Exception {
+        LoadGenerator.Result platform = runMode(false);
+        LoadGenerator.Result virtual = runMode(true);
+
+        System.out.println();
+        System.out.println("Listing load, " + CONCURRENCY + " concurrent clients, " + DURATION.toSeconds() + "s");
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertThat(platform.requests()).isPositive();
+        assertThat(virtual.requests()).isPositive();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private LoadGenerator.Result runMode(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + Integer.getInteger("load.tomcat-threads", 50),
+                        "spring.datasource.url=" + System.getProperty("load.datasource-url", "jdbc:h2:mem:load-" + mode),
+                        "spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("load.pool-size", 16),
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "coupon.expiration-sweeper.enabled=false",
+                        "coupon.rate-limit.enabled=false",
+                        "coupon.load-shedding.enabled=false",
+                        "logging.level.root=WARN")
+                .run()) {
+
+            seed(context.getBean(CouponService.class));
+
+            String url = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port")
+                    + "/coupon?size=20&published=true";
+
+            return LoadGenerator.run(mode + " threads",
+                    () -> HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    CONCURRENCY, WARMUP, DURATION);
+        }
+    }
+
+    private void seed(CouponService couponService) {
+        Instant expiration = Instant.now().plus(30, ChronoUnit.DAYS);
+        for (int i = 0; i < 200; i++) {
+            couponService.create(new CouponDTO(String.format("LD%04d", i), "Carga", new BigDecimal("5.0"), expiration, true));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.outbox;
+
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void shouldAppendOneJsonLinePerEventAcrossReopens(@TempDir Path dir) throws Exception {
+        Path log = dir.resolve("events/coupons.ndjson");
+        UUID couponId = UUID.randomUUID();
+
+        try (FileOutboxSink sink = new FileOutboxSink(log, objectMapper)) {
+            sink.publish(List.of(event(1, couponId, CouponEventTypeEnum.CREATED, "{\"code\":\"ABC123\"}"),
+                    event(2, couponId, CouponEventTypeEnum.REDEEMED, "{\"count\":1}")));
+        }
+        try (FileOutboxSink sink = new FileOutboxSink(log, objectMapper)) {
+            sink.publish(List.of(event(3, couponId, CouponEventTypeEnum.DELETED, "{}")));
+        }
+
+        List<String> lines = Files.readAllLines(log);
+        assertThat(lines).hasSize(3);
+
+        JsonNode redeemed = objectMapper.readTree(lines.get(1));
+        assertThat(redeemed.get("id").asLong()).isEqualTo(2);
+        assertThat(redeemed.get("type").asText()).isEqualTo("REDEEMED");
+        assertThat(redeemed.get("couponId").asText()).isEqualTo(couponId.toString());
+        // The stored payload is embedded as JSON, not as an escaped string
+        assertThat(redeemed.at("/payload/count").asInt()).isEqualTo(1);
+        assertThat(objectMapper.readTree(lines.get(2)).get("type").asText()).isEqualTo("DELETED");
+    }
+
+    private static CouponEvent event(long id, UUID couponId, CouponEventTypeEnum type, String payload) {
+        return new CouponEvent(id, type, couponId, "ABC123", Instant.now(), payload);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.outbox;
+
+import com.example.demo.entities.CouponOutboxEntity;
+import com.example.demo.enums.CouponEventTypeEnum;
+import com.example.demo.repository.CouponOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final UUID COUPON_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Mock
+    private CouponOutboxRepository repository;
+
+    private final InMemoryOutboxSink sink = new InMemoryOutboxSink(3);
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        relay = new OutboxRelay(repository, sink, new SimpleMeterRegistry(), 2, 10);
+    }
+
+    @Test
+    void shouldPublishBatchesOldestFirstAndDeleteThem() {
+        when(repository.findOldest(any(Pageable.class))).thenReturn(
+                List.of(row(1, CouponEventTypeEnum.CREATED), row(2, CouponEventTypeEnum.REDEEMED)),
+                List.of(row(3, CouponEventTypeEnum.DELETED)));
+
+        assertThat(relay.relay()).isEqualTo(3);
+
+        assertThat(sink.queue()).extracting(CouponEvent::getId).containsExactly(1L, 2L, 3L);
+        verify(repository).deleteByIds(List.of(1L, 2L));
+        verify(repository).deleteByIds(List.of(3L));
+        // A short batch means the outbox is drained, no extra query
+        verify(repository, times(2)).findOldest(any(Pageable.class));
+    }
+
+    @Test
+    void shouldKeepRefusedBatchForTheNextRun() {
+        sink.publish(List.of(new CouponEvent(), new CouponEvent()));
+        List<CouponOutboxEntity> batch = List.of(row(1, CouponEventTypeEnum.CREATED), row(2, CouponEventTypeEnum.REDEEMED));
+        when(repository.findOldest(any(Pageable.class))).thenReturn(batch, batch, List.of());
+
+        // Only one slot left in the queue: the whole batch is refused and nothing is deleted
+        assertThat(relay.relay()).isZero();
+        verify(repository, never()).deleteByIds(any());
+        assertThat(sink.queue()).hasSize(2);
+
+        sink.queue().clear();
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(sink.queue()).extracting(CouponEvent::getId).containsExactly(1L, 2L);
+        verify(repository).deleteByIds(List.of(1L, 2L));
+    }
+
+    private static CouponOutboxEntity row(long id, CouponEventTypeEnum type) {
+        CouponOutboxEntity row = new CouponOutboxEntity(COUPON_ID, "ABC123", type, "{}", Instant.now());
+        row.setId(id);
+        return row;
+    }
+}
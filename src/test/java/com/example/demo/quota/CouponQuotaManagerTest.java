@@ -0,0 +1,116 @@
+package com.example.demo.quota;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponQuotaManagerTest {
+
+    private final UUID couponId = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+
+    @Test
+    void shouldGrantExactlyMaxUsesUnderContention() throws Exception {
+        InMemoryQuotaLedger ledger = new InMemoryQuotaLedger(10_000);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 64, 8, 30);
+        AtomicInteger granted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        if (manager.tryAcquire(couponId)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(granted.get()).isEqualTo(10_000);
+        assertThat(ledger.allocated.get()).isEqualTo(10_000);
+
+        manager.reconcile();
+        assertThat(ledger.redeemed.get()).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldFlushRedemptionsAndHandBackIdleSlices() {
+        InMemoryQuotaLedger ledger = new InMemoryQuotaLedger(100);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 10, 4, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(manager.tryAcquire(couponId)).isTrue();
+        }
+        assertThat(ledger.allocated.get()).isEqualTo(10);
+
+        manager.reconcile();
+        assertThat(ledger.redeemed.get()).isEqualTo(3);
+        assertThat(ledger.allocated.get()).isEqualTo(10);
+
+        // No use since the last round: the 7 unspent uses go back to the ledger
+        manager.reconcile();
+        assertThat(ledger.allocated.get()).isEqualTo(3);
+
+        assertThat(manager.tryAcquire(couponId)).isTrue();
+        assertThat(ledger.allocated.get()).isEqualTo(13);
+    }
+
+    @Test
+    void shouldReuseReleasedUseWithoutAskingTheLedger() {
+        InMemoryQuotaLedger ledger = new InMemoryQuotaLedger(1);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 10, 4, 30);
+
+        assertThat(manager.tryAcquire(couponId)).isTrue();
+        assertThat(manager.tryAcquire(couponId)).isFalse();
+
+        manager.release(couponId);
+        assertThat(manager.tryAcquire(couponId)).isTrue();
+
+        manager.reconcile();
+        assertThat(ledger.redeemed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotAskTheLedgerAgainForAnExhaustedCouponUntilTheNextReconcile() {
+        InMemoryQuotaLedger ledger = new InMemoryQuotaLedger(2);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 10, 4, 30);
+
+        assertThat(manager.tryAcquire(couponId)).isTrue();
+        assertThat(manager.tryAcquire(couponId)).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(manager.tryAcquire(couponId)).isFalse();
+        }
+        assertThat(ledger.claims.get()).isEqualTo(2);
+
+        manager.reconcile();
+        assertThat(manager.tryAcquire(couponId)).isFalse();
+        assertThat(ledger.claims.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnUnspentUsesOnShutdown() {
+        InMemoryQuotaLedger ledger = new InMemoryQuotaLedger(100);
+        CouponQuotaManager manager = new CouponQuotaManager(ledger, 50, 4, 30);
+
+        manager.tryAcquire(couponId);
+        manager.shutdown();
+
+        assertThat(ledger.allocated.get()).isEqualTo(1);
+        assertThat(ledger.redeemed.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.quota;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One coupon's row: claim/release mirror the conditional updates of JpaQuotaLedger
+class InMemoryQuotaLedger implements QuotaLedger {
+
+    final int maxUses;
+    final AtomicInteger allocated = new AtomicInteger();
+    final AtomicInteger redeemed = new AtomicInteger();
+    final AtomicInteger claims = new AtomicInteger();
+
+    InMemoryQuotaLedger(int maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    @Override
+    public int claim(UUID couponId, int units) {
+        claims.incrementAndGet();
+        while (true) {
+            int current = allocated.get();
+            int granted = Math.min(units, maxUses - current);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (allocated.compareAndSet(current, current + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    @Override
+    public void release(UUID couponId, int units) {
+        allocated.addAndGet(-units);
+    }
+
+    @Override
+    public void recordRedemptions(UUID couponId, int count) {
+        redeemed.addAndGet(count);
+    }
+}
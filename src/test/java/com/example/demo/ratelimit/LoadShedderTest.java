@@ -0,0 +1,49 @@
+package com.example.demo.ratelimit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadShedderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoadShedder loadShedder = new LoadShedder(registry, Duration.ofMillis(200));
+
+    @Test
+    void shouldShedWhileRecentPoolWaitIsAboveThreshold() {
+        Timer acquire = registry.timer(LoadShedder.ACQUIRE_TIMER);
+        AtomicInteger pending = registry.gauge(LoadShedder.PENDING_GAUGE, new AtomicInteger());
+
+        acquire.record(Duration.ofMillis(5));
+        loadShedder.sample();
+        assertThat(loadShedder.isOverloaded()).isFalse();
+
+        acquire.record(Duration.ofMillis(400));
+        acquire.record(Duration.ofMillis(300));
+        loadShedder.sample();
+        assertThat(loadShedder.isOverloaded()).isTrue();
+        assertThat(loadShedder.recentWait()).isEqualTo(Duration.ofMillis(350));
+
+        // Nothing acquired but threads still queued on the pool: keep shedding
+        pending.set(3);
+        loadShedder.sample();
+        assertThat(loadShedder.isOverloaded()).isTrue();
+
+        // Queue drained: let traffic back in
+        pending.set(0);
+        loadShedder.sample();
+        assertThat(loadShedder.isOverloaded()).isFalse();
+    }
+
+    @Test
+    void shouldStayOpenBeforeThePoolIsRegistered() {
+        loadShedder.sample();
+
+        assertThat(loadShedder.isOverloaded()).isFalse();
+    }
+}
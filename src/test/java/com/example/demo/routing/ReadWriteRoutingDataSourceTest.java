@@ -0,0 +1,97 @@
+package com.example.demo.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two H2 instances, each answering with its own name, behind the same wiring as ReadReplicaConfig
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setup() {
+        DataSource primary = node("routing_primary", "primary");
+        DataSource replica = node("routing_replica", "replica");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToTheReplica() {
+        assertThat(readOnly.execute(status -> nodeName())).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldSendReadWriteTransactionsAndPlainCallsToThePrimary() {
+        assertThat(readWrite.execute(status -> nodeName())).isEqualTo("primary");
+        assertThat(nodeName()).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldPinReadOnlyTransactionsToThePrimaryOnRequest() {
+        String node = ReadWriteRoutingDataSource.onPrimary(() -> readOnly.execute(status -> nodeName()));
+
+        assertThat(node).isEqualTo("primary");
+        assertThat(readOnly.execute(status -> nodeName())).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldReadRecentlyWrittenKeysFromThePrimaryUntilTheWindowCloses() throws InterruptedException {
+        ReplicaStalenessGuard guard = new ReplicaStalenessGuard(true, Duration.ofMillis(200), 100);
+        guard.markWritten("ABC123");
+
+        assertThat(guard.read("ABC123", () -> readOnly.execute(status -> nodeName()))).isEqualTo("primary");
+        assertThat(guard.read("XYZ999", () -> readOnly.execute(status -> nodeName()))).isEqualTo("replica");
+
+        Thread.sleep(400);
+
+        assertThat(guard.read("ABC123", () -> readOnly.execute(status -> nodeName()))).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldNotTrackWritesWhenReplicaRoutingIsOff() {
+        ReplicaStalenessGuard guard = new ReplicaStalenessGuard(false, Duration.ofMinutes(1), 100);
+        guard.markWritten("ABC123");
+
+        assertThat(guard.read("ABC123", () -> readOnly.execute(status -> nodeName()))).isEqualTo("replica");
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String database, String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbc.update("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.BulkDeleteRequest;
+import com.example.demo.dto.BulkDeleteResponse;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponGenerateRequest;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.outbox.CouponOutbox;
+import com.example.demo.repository.CouponCodeRow;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponBatchServiceTest {
+
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID ID_3 = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Mock
+    private CouponService couponService;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponCache couponCache;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CouponBatchService batchService;
+
+    @BeforeEach
+    void setup() {
+        batchService = new CouponBatchService(couponService, couponRepository, couponCache, new CouponCodeGenerator(),
+                validator, new ObjectMapper(), new CouponCodeIndex(false, 0), new CouponOutbox(null, null, null, false),
+                new ReplicaStalenessGuard(false, Duration.ZERO, 0), transactionManager, 2, 100);
+    }
+
+    @Test
+    void shouldDeleteIdsInChunks() {
+        when(couponRepository.lockLive(List.of(ID_1, ID_2))).thenReturn(List.of(row(ID_1), row(ID_2)));
+        when(couponRepository.lockLive(List.of(ID_3))).thenReturn(List.of());
+
+        BulkDeleteResponse response = batchService.bulkDelete(new BulkDeleteRequest(List.of(ID_1, ID_2, ID_3), null));
+
+        assertThat(response.getDeleted()).isEqualTo(2);
+        // Only the chunk with live rows runs the update
+        verify(couponRepository).softDeleteByIds(List.of(ID_1, ID_2), CouponStatusEnum.DELETED);
+        verify(couponRepository, times(1)).softDeleteByIds(any(), eq(CouponStatusEnum.DELETED));
+        verify(couponCache).markDeleted(ID_1);
+        verify(couponCache).markDeleted(ID_3);
+    }
+
+    @Test
+    void shouldWalkFilterWithKeysetCursor() {
+        CouponFilter filter = new CouponFilter();
+        filter.setRedeemed(true);
+
+        when(couponRepository.findIds(eq(filter), isNull(), eq(2))).thenReturn(List.of(ID_1, ID_2));
+        when(couponRepository.findIds(filter, ID_2, 2)).thenReturn(List.of(ID_3));
+        when(couponRepository.lockLive(List.of(ID_1, ID_2))).thenReturn(List.of(row(ID_1), row(ID_2)));
+        when(couponRepository.lockLive(List.of(ID_3))).thenReturn(List.of(row(ID_3)));
+
+        BulkDeleteResponse response = batchService.bulkDelete(new BulkDeleteRequest(null, filter));
+
+        assertThat(response.getDeleted()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectEmptyFilterUnlessAllIsRequested() {
+        assertThatThrownBy(() -> batchService.bulkDelete(new BulkDeleteRequest(null, new CouponFilter())))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("all");
+        verifyNoInteractions(couponRepository);
+
+        BulkDeleteRequest everything = new BulkDeleteRequest(null, null);
+        everything.setAll(true);
+        when(couponRepository.findIds(any(CouponFilter.class), isNull(), eq(2))).thenReturn(List.of(ID_1));
+        when(couponRepository.lockLive(List.of(ID_1))).thenReturn(List.of(row(ID_1)));
+
+        assertThat(batchService.bulkDelete(everything).getDeleted()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEndGeneratedStreamWithErrorLineWhenCodesRunOut() throws Exception {
+        when(couponRepository.findExistingLiveCodes(any())).thenAnswer(invocation -> List.copyOf(invocation.<Collection<String>>getArgument(0)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        batchService.generate(new CouponGenerateRequest(), 3, "AB", out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"error\":\"could not find free codes for prefix AB\",\"created\":0}\n");
+        verify(couponService, never()).toNewEntity(any());
+    }
+
+    @Test
+    void shouldRequireIdsOrFilter() {
+        assertThatThrownBy(() -> batchService.bulkDelete(new BulkDeleteRequest()))
+                .isInstanceOf(BusinessException.class);
+
+        verifyNoInteractions(couponRepository);
+    }
+
+    private static CouponCodeRow row(UUID id) {
+        return new CouponCodeRow(id, "C" + id.toString().substring(31));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+class CouponCodeGeneratorTest {
+
+    private final CouponCodeGenerator generator = new CouponCodeGenerator();
+
+    @Test
+    void shouldGenerateSixAlphanumericCharactersStartingWithPrefix() {
+        for (int i = 0; i < 1000; i++) {
+            String code = generator.next("AB");
+
+            assertThat(code).hasSize(6).startsWith("AB").matches("[A-Za-z0-9]{6}");
+        }
+    }
+
+    @Test
+    void shouldComputeKeyspaceLeftAfterPrefix() {
+        assertThat(generator.keyspace("")).isEqualTo(56_800_235_584L);
+        assertThat(generator.keyspace("ABCD")).isEqualTo(62L * 62L);
+    }
+
+    @Test
+    void shouldRejectInvalidPrefix() {
+        assertThatThrownBy(() -> generator.checkPrefix("AB-1"))
+                .isInstanceOf(BusinessException.class);
+
+        assertThatThrownBy(() -> generator.checkPrefix("ABCDEF"))
+                .isInstanceOf(BusinessException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.exceptions.CodeNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+class CouponCodeSanitizerTest {
+
+    private static final long SEED = 20251104L;
+    private static final int SAMPLES = 200_000;
+
+    // Mix of kept characters, ASCII noise, non-ASCII letters/digits and surrogate pairs
+    private static final String[] FRAGMENTS = {
+            "A", "z", "0", "9", "M", "q", "5",
+            "-", "!", "@", " ", "\t", "\n", "_", ".", "#",
+            "é", "Ç", "ß", "ñ", "٣", "５", "Ａ",
+            "😀", "𝐀", "\u0000", " "
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ABC123", "ABC123!!", "ABC-123-XYZ", "A!B@C#1$2%3", "abc1234567", "!!!!!!ABCDEF",
+            "A!1", "", "      ", "ÁBC123", "AB😀C123", "12345", "123456"})
+    void shouldMatchRegexImplementationOnKnownInputs(String raw) {
+        assertSameOutcome(raw);
+    }
+
+    @Test
+    void shouldMatchRegexImplementationOnRandomInputs() {
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            StringBuilder raw = new StringBuilder();
+            int fragments = random.nextInt(16);
+            for (int j = 0; j < fragments; j++) {
+                raw.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            assertSameOutcome(raw.toString());
+        }
+    }
+
+    @Test
+    void shouldRejectNullCode() {
+        assertThatThrownBy(() -> CouponCodeSanitizer.sanitize(null))
+                .isInstanceOf(CodeNotFoundException.class);
+    }
+
+    @Test
+    void shouldReturnSameInstanceWhenCodeIsAlreadyClean() {
+        String raw = "ABC123";
+
+        assertThat(CouponCodeSanitizer.sanitize(raw)).isSameAs(raw);
+    }
+
+    private void assertSameOutcome(String raw) {
+        String expected;
+        try {
+            expected = regexSanitize(raw);
+        } catch (BusinessException ex) {
+            assertThatThrownBy(() -> CouponCodeSanitizer.sanitize(raw))
+                    .as("input %s", raw)
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage(ex.getMessage());
+            return;
+        }
+
+        assertThat(CouponCodeSanitizer.sanitize(raw)).as("input %s", raw).isEqualTo(expected);
+    }
+
+    // The implementation CouponService used before the single-pass sanitizer
+    private String regexSanitize(String rawCode) {
+        String sanitized = rawCode.replaceAll("[^A-Za-z0-9]", "");
+
+        if (sanitized.length() > 6) {
+            sanitized = sanitized.substring(0, 6);
+        }
+
+        if (sanitized.length() < 6) {
+            throw new BusinessException("code must have 6 alphanumeric characters after sanitization");
+        }
+
+        return sanitized;
+    }
+}
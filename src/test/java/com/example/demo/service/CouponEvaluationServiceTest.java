@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CartEvaluationRequest;
+import com.example.demo.dto.CartEvaluationResponse;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.outbox.CouponOutbox;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponEvaluationServiceTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private CouponCache couponCache;
+
+    private CouponEvaluationService evaluationService;
+
+    @BeforeEach
+    void setup() {
+        couponCache = new CouponCache(100, Duration.ofMinutes(5));
+        CouponMetrics metrics = new CouponMetrics(new SimpleMeterRegistry());
+        CouponCodeIndex codeIndex = new CouponCodeIndex(false, 0);
+        CouponService couponService = new CouponService(couponRepository, couponCache, metrics,
+                JsonMapper.builder().findAndAddModules().build(),
+                new ReplicaStalenessGuard(false, Duration.ZERO, 0), null, codeIndex,
+                new CouponOutbox(null, null, null, false));
+        evaluationService = new CouponEvaluationService(couponService, metrics);
+    }
+
+    @Test
+    void shouldPickLargestDiscountCappedAtCartTotal() {
+        when(couponRepository.findByLiveCodeIn(anyCollection())).thenReturn(List.of(
+                coupon("SMALL1", "5.00", false),
+                coupon("LARGE1", "80.00", false),
+                coupon("MIDDLE", "20.00", false)));
+
+        CartEvaluationResponse response = evaluationService.evaluate(
+                new CartEvaluationRequest(new BigDecimal("30"), List.of("SMALL1", "LARGE1", "MIDDLE")));
+
+        assertThat(response.getCartTotal()).isEqualByComparingTo("30.00");
+        assertThat(response.getBest().getCode()).isEqualTo("LARGE1");
+        assertThat(response.getBest().getDiscount()).isEqualByComparingTo("30.00");
+        assertThat(response.getTotalAfterDiscount()).isEqualByComparingTo("0.00");
+        assertThat(response.getResults()).extracting("code").containsExactly("SMALL1", "LARGE1", "MIDDLE");
+    }
+
+    @Test
+    void shouldExplainWhyCodesDoNotApply() {
+        when(couponRepository.findByLiveCodeIn(anyCollection())).thenReturn(List.of(coupon("USED01", "10.00", true)));
+
+        CartEvaluationResponse response = evaluationService.evaluate(
+                new CartEvaluationRequest(new BigDecimal("50.00"), List.of("USED01", "MISS01", "??")));
+
+        assertThat(response.getBest()).isNull();
+        assertThat(response.getTotalAfterDiscount()).isEqualByComparingTo("50.00");
+        assertThat(response.getResults()).extracting("applicable").containsOnly(false);
+        assertThat(response.getResults().get(0).getReason()).isEqualTo("Coupon already redeemed");
+        assertThat(response.getResults().get(1).getReason()).isEqualTo("Coupon not found");
+        assertThat(response.getResults().get(2).getReason()).contains("6 alphanumeric");
+    }
+
+    @Test
+    void shouldResolveMissesInOneQueryAndServeRepeatsFromCache() {
+        when(couponRepository.findByLiveCodeIn(anyCollection())).thenReturn(List.of(
+                coupon("FIRST1", "10.00", false),
+                coupon("SECOND", "10.00", false)));
+
+        CartEvaluationResponse first = evaluationService.evaluate(
+                new CartEvaluationRequest(new BigDecimal("50.00"), List.of("FIRST1", "SECOND", "FIRST1")));
+        CartEvaluationResponse second = evaluationService.evaluate(
+                new CartEvaluationRequest(new BigDecimal("50.00"), List.of("SECOND", "FIRST1")));
+
+        // Ties keep the first code sent
+        assertThat(first.getBest().getCode()).isEqualTo("FIRST1");
+        assertThat(second.getBest().getCode()).isEqualTo("SECOND");
+        verify(couponRepository, times(1)).findByLiveCodeIn(argThat(codes -> codes.size() == 2));
+    }
+
+    @Test
+    void shouldRejectTooManyCodes() {
+        CartEvaluationRequest request = new CartEvaluationRequest(new BigDecimal("10.00"),
+                Collections.nCopies(CouponEvaluationService.MAX_CODES + 1, "ABC123"));
+
+        assertThatThrownBy(() -> evaluationService.evaluate(request))
+                .isInstanceOf(BusinessException.class);
+        verify(couponRepository, never()).findByLiveCodeIn(anyCollection());
+    }
+
+    private static CouponEntity coupon(String code, String discount, boolean redeemed) {
+        return new CouponEntity(UUID.randomUUID(), code, "Cupom", new BigDecimal(discount),
+                Instant.now().plus(1, ChronoUnit.DAYS), CouponStatusEnum.ACTIVE, true, redeemed);
+    }
+}
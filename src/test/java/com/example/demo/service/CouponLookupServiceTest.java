@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.CouponCache;
+import com.example.demo.dto.CouponLookupItem;
+import com.example.demo.dto.CouponLookupRequest;
+import com.example.demo.dto.CouponLookupResponse;
+import com.example.demo.entities.CouponEntity;
+import com.example.demo.enums.CouponStatusEnum;
+import com.example.demo.exceptions.BusinessException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.outbox.CouponOutbox;
+import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponLookupServiceTest {
+
+    private static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID ID_3 = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private CouponCache couponCache;
+
+    private CouponLookupService lookupService;
+
+    @BeforeEach
+    void setup() {
+        couponCache = new CouponCache(100, Duration.ofMinutes(5));
+        CouponMetrics metrics = new CouponMetrics(new SimpleMeterRegistry());
+        ReplicaStalenessGuard staleness = new ReplicaStalenessGuard(false, Duration.ZERO, 0);
+        CouponCodeIndex codeIndex = new CouponCodeIndex(false, 0);
+        CouponService couponService = new CouponService(couponRepository, couponCache, metrics,
+                JsonMapper.builder().findAndAddModules().build(), staleness, null, codeIndex,
+                new CouponOutbox(null, null, null, false));
+        lookupService = new CouponLookupService(couponRepository, couponCache, couponService, staleness, metrics, 2);
+    }
+
+    @Test
+    void shouldQueryMissesInChunksAndKeepRequestOrder() {
+        when(couponRepository.findAllById(List.of(ID_3, ID_1))).thenReturn(List.of(
+                coupon(ID_1, "AAA111", CouponStatusEnum.ACTIVE),
+                coupon(ID_3, "CCC333", CouponStatusEnum.ACTIVE)));
+        when(couponRepository.findAllById(List.of(ID_2))).thenReturn(List.of(coupon(ID_2, "BBB222", CouponStatusEnum.DELETED)));
+
+        CouponLookupResponse response = lookupService.lookup(new CouponLookupRequest(List.of(ID_3, ID_1, ID_2, ID_3), null));
+
+        assertThat(response.getById()).extracting(CouponLookupItem::isFound).containsExactly(true, true, false, true);
+        assertThat(response.getById()).extracting(item -> item.getCoupon() == null ? null : item.getCoupon().getCode())
+                .containsExactly("CCC333", "AAA111", null, "CCC333");
+        assertThat(response.getByCode()).isEmpty();
+        assertThat(couponCache.isKnownDeleted(ID_2)).isTrue();
+    }
+
+    @Test
+    void shouldServeCachedCouponsWithoutQuerying() {
+        when(couponRepository.findByLiveCodeIn(anyCollection())).thenReturn(List.of(coupon(ID_1, "AAA111", CouponStatusEnum.ACTIVE)));
+
+        lookupService.lookup(new CouponLookupRequest(null, List.of("AAA111", "ZZZ999")));
+        CouponLookupResponse response = lookupService.lookup(new CouponLookupRequest(List.of(ID_1), List.of("AAA-111", "?")));
+
+        assertThat(response.getById().get(0).isFound()).isTrue();
+        assertThat(response.getByCode()).extracting(CouponLookupItem::isFound).containsExactly(true, false);
+        assertThat(response.getByCode().get(1).getReason()).contains("6 alphanumeric");
+        verify(couponRepository, times(1)).findByLiveCodeIn(anyCollection());
+        verify(couponRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldRejectEmptyAndOversizedRequests() {
+        assertThatThrownBy(() -> lookupService.lookup(new CouponLookupRequest(null, null)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> lookupService.lookup(new CouponLookupRequest(
+                Collections.nCopies(CouponLookupService.MAX_LOOKUP_ITEMS, ID_1), List.of("AAA111"))))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(couponRepository);
+    }
+
+    private static CouponEntity coupon(UUID id, String code, CouponStatusEnum status) {
+        return new CouponEntity(id, code, "Cupom", new BigDecimal("1.00"),
+                Instant.now().plus(1, ChronoUnit.DAYS), status, true, false);
+    }
+}
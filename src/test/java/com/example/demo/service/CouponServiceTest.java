@@ -1,29 +1,49 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.CouponCache;
+import com.example.demo.cache.SerializedCoupon;
 import com.example.demo.dto.CouponDTO;
+import com.example.demo.dto.CouponFilter;
+import com.example.demo.dto.CouponPageResponse;
 import com.example.demo.dto.CouponResponse;
 import com.example.demo.entities.CouponEntity;
 import com.example.demo.enums.CouponStatusEnum;
 import com.example.demo.exceptions.BusinessException;
 import com.example.demo.exceptions.CouponAlreadyDeletedException;
+import com.example.demo.exceptions.CouponAlreadyRedeemedException;
+import com.example.demo.exceptions.CouponCodeAlreadyExistsException;
 import com.example.demo.exceptions.CouponNotFoundException;
+import com.example.demo.index.CouponCodeIndex;
+import com.example.demo.metrics.CouponMetrics;
+import com.example.demo.outbox.CouponOutbox;
 import com.example.demo.repository.CouponRepository;
+import com.example.demo.routing.ReplicaStalenessGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +52,29 @@ class CouponServiceTest {
     @Mock
     private CouponRepository couponRepository;
 
+    @Spy
+    private CouponCache couponCache = new CouponCache(100, Duration.ofMinutes(5));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CouponMetrics couponMetrics = new CouponMetrics(meterRegistry);
+
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Mock
+    private MultiUseRedemptionService multiUseRedemptions;
+
+    @Spy
+    private ReplicaStalenessGuard stalenessGuard = new ReplicaStalenessGuard(false, Duration.ZERO, 0);
+
+    @Spy
+    private CouponCodeIndex codeIndex = new CouponCodeIndex(false, 0);
+
+    @Spy
+    private CouponOutbox outbox = new CouponOutbox(null, null, null, false);
+
     @InjectMocks
     private CouponService couponService;
 
@@ -42,7 +85,7 @@ class CouponServiceTest {
         couponDTO = new CouponDTO();
         couponDTO.setCode("ABC123!!");
         couponDTO.setDescription("Cupom de teste");
-        couponDTO.setDiscountValue(10.0);
+        couponDTO.setDiscountValue(new BigDecimal("10.0"));
         couponDTO.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
         couponDTO.setPublished(false);
     }
@@ -59,7 +102,7 @@ class CouponServiceTest {
         saved.setPublished(false);
         saved.setRedeemed(false);
 
-        when(couponRepository.save(any(CouponEntity.class))).thenReturn(saved);
+        when(couponRepository.saveAndFlush(any(CouponEntity.class))).thenReturn(saved);
 
 
         CouponResponse response = couponService.create(couponDTO);
@@ -75,7 +118,7 @@ class CouponServiceTest {
 
 
         ArgumentCaptor<CouponEntity> captor = ArgumentCaptor.forClass(CouponEntity.class);
-        verify(couponRepository).save(captor.capture());
+        verify(couponRepository).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getCode()).isEqualTo("ABC123");
     }
 
@@ -93,7 +136,7 @@ class CouponServiceTest {
         saved.setPublished(true);
         saved.setRedeemed(false);
 
-        when(couponRepository.save(any(CouponEntity.class))).thenReturn(saved);
+        when(couponRepository.saveAndFlush(any(CouponEntity.class))).thenReturn(saved);
 
 
         CouponResponse response = couponService.create(couponDTO);
@@ -103,7 +146,7 @@ class CouponServiceTest {
 
 
         ArgumentCaptor<CouponEntity> captor = ArgumentCaptor.forClass(CouponEntity.class);
-        verify(couponRepository).save(captor.capture());
+        verify(couponRepository).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getPublished()).isTrue();
     }
 
@@ -123,7 +166,7 @@ class CouponServiceTest {
         saved.setPublished(false);
         saved.setRedeemed(false);
 
-        when(couponRepository.save(any(CouponEntity.class))).thenReturn(saved);
+        when(couponRepository.saveAndFlush(any(CouponEntity.class))).thenReturn(saved);
 
 
         CouponResponse response = couponService.create(couponDTO);
@@ -133,7 +176,7 @@ class CouponServiceTest {
 
 
         ArgumentCaptor<CouponEntity> captor = ArgumentCaptor.forClass(CouponEntity.class);
-        verify(couponRepository).save(captor.capture());
+        verify(couponRepository).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getCode()).isEqualTo("ABC123");
     }
 
@@ -153,7 +196,7 @@ class CouponServiceTest {
         saved.setPublished(false);
         saved.setRedeemed(false);
 
-        when(couponRepository.save(any(CouponEntity.class))).thenReturn(saved);
+        when(couponRepository.saveAndFlush(any(CouponEntity.class))).thenReturn(saved);
 
 
         CouponResponse response = couponService.create(couponDTO);
@@ -162,14 +205,47 @@ class CouponServiceTest {
         assertThat(response.getPublished()).isFalse();
 
         ArgumentCaptor<CouponEntity> captor = ArgumentCaptor.forClass(CouponEntity.class);
-        verify(couponRepository).save(captor.capture());
+        verify(couponRepository).saveAndFlush(captor.capture());
         assertThat(captor.getValue().getPublished()).isFalse();
     }
 
 
+    @Test
+    void shouldFailWhenCodeIsAlreadyInUse() {
+        when(couponRepository.saveAndFlush(any(CouponEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("UK_COUPONS_LIVE_CODE"));
+
+        assertThatThrownBy(() -> couponService.create(couponDTO))
+                .isInstanceOf(CouponCodeAlreadyExistsException.class);
+    }
+
+    @Test
+    void shouldNotReportOtherIntegrityViolationsAsDuplicateCode() {
+        DataIntegrityViolationException tooLong = new DataIntegrityViolationException(
+                "Value too long for column \"DESCRIPTION CHARACTER VARYING(350)\"");
+        when(couponRepository.saveAndFlush(any(CouponEntity.class))).thenThrow(tooLong);
+
+        assertThatThrownBy(() -> couponService.create(couponDTO)).isSameAs(tooLong);
+    }
+
+    @Test
+    void shouldFindCouponBySanitizedCode() {
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"));
+        coupon.setCode("ABC123");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+
+        when(couponRepository.findByLiveCode("ABC123")).thenReturn(Optional.of(coupon));
+
+        CouponResponse response = couponService.findByCode("ABC-123");
+
+        assertThat(response.getId()).isEqualTo(coupon.getId());
+        assertThat(response.getCode()).isEqualTo("ABC123");
+    }
+
     @Test
     void shouldFailWhenDiscountValueIsLessThanMin() {
-        couponDTO.setDiscountValue(0.4);
+        couponDTO.setDiscountValue(new BigDecimal("0.4"));
 
         assertThatThrownBy(() -> couponService.create(couponDTO))
                 .isInstanceOf(BusinessException.class)
@@ -202,25 +278,26 @@ class CouponServiceTest {
 
     @Test
     void shouldDeleteCouponWhenNotDeletedYet() {
-        CouponEntity coupon = new CouponEntity();
-        coupon.setId(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"));
-        coupon.setCode("ABC123");
-        coupon.setStatus(CouponStatusEnum.ACTIVE);
-
-        when(couponRepository.findById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"))).thenReturn(Optional.of(coupon));
+        when(couponRepository.softDeleteById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"), CouponStatusEnum.DELETED)).thenReturn(1);
+        when(couponRepository.findCodeById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"))).thenReturn("ABC123");
 
 
         couponService.delete(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"));
 
 
-        assertThat(coupon.getStatus()).isEqualTo(CouponStatusEnum.DELETED);
-        verify(couponRepository).save(coupon);
+        // Not cached: the released code still reaches the staleness guard and the index
+        verify(stalenessGuard).markWritten("ABC123");
+        verify(codeIndex).markDeleted("ABC123");
+        verify(couponRepository, never()).findById(any());
+        verify(couponRepository, never()).existsById(any());
+        verify(couponRepository, never()).save(any());
     }
 
 
     @Test
     void shouldThrowWhenCouponNotFoundOnDelete() {
-        when(couponRepository.findById(UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1"))).thenReturn(Optional.empty());
+        when(couponRepository.softDeleteById(UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1"), CouponStatusEnum.DELETED)).thenReturn(0);
+        when(couponRepository.existsById(UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1"))).thenReturn(false);
 
         assertThatThrownBy(() -> couponService.delete(UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1")))
                 .isInstanceOf(CouponNotFoundException.class);
@@ -230,17 +307,241 @@ class CouponServiceTest {
 
     @Test
     void shouldThrowWhenCouponAlreadyDeleted() {
+        when(couponRepository.softDeleteById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"), CouponStatusEnum.DELETED)).thenReturn(0);
+        when(couponRepository.existsById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"))).thenReturn(true);
+
+        assertThatThrownBy(() -> couponService.delete(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50")))
+                .isInstanceOf(CouponAlreadyDeletedException.class);
+
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldTagOperationTimerWithOutcome() {
+        UUID deleted = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        UUID missing = UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1");
+        when(couponRepository.softDeleteById(any(UUID.class), eq(CouponStatusEnum.DELETED))).thenReturn(0);
+        when(couponRepository.existsById(deleted)).thenReturn(true);
+        when(couponRepository.existsById(missing)).thenReturn(false);
+
+        assertThatThrownBy(() -> couponService.delete(deleted)).isInstanceOf(CouponAlreadyDeletedException.class);
+        assertThatThrownBy(() -> couponService.delete(missing)).isInstanceOf(CouponNotFoundException.class);
+        assertThatThrownBy(() -> couponService.delete(missing)).isInstanceOf(CouponNotFoundException.class);
+        couponDTO.setDiscountValue(new BigDecimal("0.1"));
+        assertThatThrownBy(() -> couponService.create(couponDTO)).isInstanceOf(BusinessException.class);
+
+        assertThat(meterRegistry.get(CouponMetrics.OPERATIONS)
+                .tags("operation", "delete", "outcome", CouponMetrics.ALREADY_DELETED).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CouponMetrics.OPERATIONS)
+                .tags("operation", "delete", "outcome", CouponMetrics.NOT_FOUND).timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(CouponMetrics.OPERATIONS)
+                .tags("operation", "create", "outcome", CouponMetrics.BUSINESS_ERROR).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRedeemCouponWithSingleConditionalUpdate() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        when(couponRepository.redeemById(eq(id), eq(CouponStatusEnum.ACTIVE), any(Instant.class))).thenReturn(1);
+
+        couponService.redeem(id);
+
+        verify(couponRepository, never()).findById(any());
+        verify(couponRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowWhenCouponAlreadyRedeemed() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
         CouponEntity coupon = new CouponEntity();
-        coupon.setId(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"));
+        coupon.setId(id);
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+        coupon.setPublished(true);
+        coupon.setRedeemed(true);
+        coupon.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        when(couponRepository.redeemById(eq(id), eq(CouponStatusEnum.ACTIVE), any(Instant.class))).thenReturn(0);
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+
+        assertThatThrownBy(() -> couponService.redeem(id))
+                .isInstanceOf(CouponAlreadyRedeemedException.class);
+    }
+
+    @Test
+    void shouldThrowWhenRedeemingUnpublishedCoupon() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+        coupon.setPublished(false);
+        coupon.setRedeemed(false);
+        coupon.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        when(couponRepository.redeemById(eq(id), eq(CouponStatusEnum.ACTIVE), any(Instant.class))).thenReturn(0);
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+
+        assertThatThrownBy(() -> couponService.redeem(id))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("published");
+    }
+
+    @Test
+    void shouldThrowWhenRedeemingMissingCoupon() {
+        UUID id = UUID.fromString("55e5847f-9971-4d84-8921-c0186bc006e1");
+        when(couponRepository.redeemById(eq(id), eq(CouponStatusEnum.ACTIVE), any(Instant.class))).thenReturn(0);
+        when(couponRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> couponService.redeem(id))
+                .isInstanceOf(CouponNotFoundException.class);
+    }
+
+    @Test
+    void shouldHandMultiUseCouponToQuotaPathAndSkipTheDbOnceCached() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setCode("MLT001");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+        coupon.setPublished(true);
+        coupon.setRedeemed(false);
+        coupon.setExpirationDate(Instant.now().plus(1, ChronoUnit.DAYS));
+        coupon.setMaxUses(1000);
+
+        when(couponRepository.redeemById(eq(id), eq(CouponStatusEnum.ACTIVE), any(Instant.class))).thenReturn(0);
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+
+        couponService.redeem(id, "customer-1");
+        couponService.redeem(id, "customer-2");
+
+        verify(couponRepository, times(1)).redeemById(eq(id), any(), any());
+        verify(couponRepository, times(1)).findById(id);
+        verify(multiUseRedemptions).redeem(argThat(response -> id.equals(response.getId())), eq("customer-1"));
+        verify(multiUseRedemptions).redeem(argThat(response -> id.equals(response.getId())), eq("customer-2"));
+    }
+
+    @Test
+    void shouldServeRepeatedFindByIdFromCache() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setCode("ABC123");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+
+        couponService.findById(id);
+        CouponResponse response = couponService.findById(id);
+
+        assertThat(response.getCode()).isEqualTo("ABC123");
+        verify(couponRepository, times(1)).findById(id);
+        assertThat(couponService.cacheStats().getById().getHits()).isEqualTo(1);
+        assertThat(couponService.cacheStats().getById().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSerializeOnceAndServeCachedJsonUntilEvicted() throws Exception {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setCode("ABC123");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+        coupon.setRedeemed(false);
+
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+
+        SerializedCoupon first = couponService.findSerializedById(id);
+        SerializedCoupon second = couponService.findSerializedById(id);
+
+        assertThat(second).isSameAs(first);
+        assertThat(objectMapper.readTree(first.getJson()).get("code").asText()).isEqualTo("ABC123");
+        assertThat(first.matches(first.getEtag())).isTrue();
+        verify(objectMapper, times(1)).writeValueAsBytes(any(CouponResponse.class));
+
+        coupon.setRedeemed(true);
+        couponCache.evict(id);
+        SerializedCoupon afterRedeem = couponService.findSerializedById(id);
+
+        assertThat(afterRedeem.getEtag()).isNotEqualTo(first.getEtag());
+        assertThat(afterRedeem.matches(first.getEtag())).isFalse();
+    }
+
+    @Test
+    void shouldKeepNegativeEntryForDeletedCoupon() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
         coupon.setCode("ABC123");
         coupon.setStatus(CouponStatusEnum.DELETED);
 
-        when(couponRepository.findById(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50"))).thenReturn(Optional.of(coupon));
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
 
-        assertThatThrownBy(() -> couponService.delete(UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50")))
-                .isInstanceOf(CouponAlreadyDeletedException.class);
+        assertThatThrownBy(() -> couponService.findById(id)).isInstanceOf(CouponNotFoundException.class);
+        assertThatThrownBy(() -> couponService.findById(id)).isInstanceOf(CouponNotFoundException.class);
 
-        verify(couponRepository, never()).save(any());
+        verify(couponRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void shouldEvictCachedCouponOnDelete() {
+        UUID id = UUID.fromString("d11fa7b2-714d-43a1-bc76-1ec8b8b1ba50");
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(id);
+        coupon.setCode("ABC123");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+
+        when(couponRepository.findById(id)).thenReturn(Optional.of(coupon));
+        when(couponRepository.softDeleteById(id, CouponStatusEnum.DELETED)).thenReturn(1);
+        when(couponRepository.findCodeById(id)).thenReturn("ABC123");
+
+        couponService.findById(id);
+        couponService.delete(id);
+
+        assertThatThrownBy(() -> couponService.findById(id)).isInstanceOf(CouponNotFoundException.class);
+        verify(couponCache).markDeleted(id);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreRowsThanPageSize() {
+        CouponFilter filter = new CouponFilter();
+        List<CouponEntity> rows = List.of(
+                coupon("00000000-0000-0000-0000-000000000001"),
+                coupon("00000000-0000-0000-0000-000000000002"),
+                coupon("00000000-0000-0000-0000-000000000003"));
+
+        when(couponRepository.findPage(filter, null, 3)).thenReturn(rows);
+
+        CouponPageResponse page = couponService.list(filter, null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+    }
+
+    @Test
+    void shouldReturnNoCursorOnLastPage() {
+        CouponFilter filter = new CouponFilter();
+        UUID after = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+        when(couponRepository.findPage(filter, after, 3)).thenReturn(List.of(coupon("00000000-0000-0000-0000-000000000003")));
+
+        CouponPageResponse page = couponService.list(filter, after, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldRejectPageSizeAboveLimit() {
+        assertThatThrownBy(() -> couponService.list(new CouponFilter(), null, CouponService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(BusinessException.class);
+
+        verifyNoInteractions(couponRepository);
+    }
+
+    private CouponEntity coupon(String id) {
+        CouponEntity coupon = new CouponEntity();
+        coupon.setId(UUID.fromString(id));
+        coupon.setCode("ABC123");
+        coupon.setStatus(CouponStatusEnum.ACTIVE);
+        return coupon;
     }
 
 }